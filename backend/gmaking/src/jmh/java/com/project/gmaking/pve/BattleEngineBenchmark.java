@@ -0,0 +1,83 @@
+package com.project.gmaking.pve;
+
+import com.project.gmaking.pve.service.PveBattleSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PVE 전투 1회 시뮬레이션 처리량 비교.
+ * - legacyMathRandom : 기존 루프 (Math.random, 턴마다 공격자/데미지 계산)
+ * - simulate         : Turn 목록까지 생성 (리플레이/WebSocket 경로)
+ * - packedTurns      : 턴당 int 1개 배열
+ * - fight            : 승패/턴 수만 (밸런스 시뮬레이션 경로, 할당 없음)
+ *
+ * ./gradlew jmh
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BattleEngineBenchmark {
+
+    /** 짧은 전투(약 10턴) / 긴 전투(약 60턴) */
+    @Param({"SHORT", "LONG"})
+    String matchup;
+
+    private PveBattleSimulator.Combatant player;
+    private PveBattleSimulator.Combatant monster;
+    private SplittableRandom rnd;
+    private long seed;
+
+    @Setup
+    public void setup() {
+        if ("SHORT".equals(matchup)) {
+            player = new PveBattleSimulator.Combatant("player", 300, 40, 10, 5, 30);
+            monster = new PveBattleSimulator.Combatant("monster", 250, 25, 8, 7, 10);
+        } else {
+            player = new PveBattleSimulator.Combatant("player", 1200, 30, 18, 5, 20);
+            monster = new PveBattleSimulator.Combatant("monster", 1000, 32, 12, 7, 15);
+        }
+        rnd = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public boolean legacyMathRandom() {
+        int playerHp = player.hp();
+        int monsterHp = monster.hp();
+        boolean playerFirst = player.speed() >= monster.speed();
+        int turn = 1;
+        while (playerHp > 0 && monsterHp > 0) {
+            boolean isPlayerAttack = (turn % 2 == 1) ? playerFirst : !playerFirst;
+            PveBattleSimulator.Combatant atk = isPlayerAttack ? player : monster;
+            PveBattleSimulator.Combatant def = isPlayerAttack ? monster : player;
+            boolean critical = Math.random() * 100 < atk.criticalRate();
+            int damage = Math.max(1, (critical ? atk.attack() * 2 : atk.attack()) - def.defense());
+            if (isPlayerAttack) monsterHp -= damage;
+            else playerHp -= damage;
+            turn++;
+        }
+        return monsterHp <= 0;
+    }
+
+    @Benchmark
+    public PveBattleSimulator.Result simulate() {
+        return PveBattleSimulator.simulate(player, monster, seed++);
+    }
+
+    @Benchmark
+    public int[] packedTurns() {
+        return PveBattleSimulator.packedTurns(player, monster, rnd);
+    }
+
+    @Benchmark
+    public long fight() {
+        return PveBattleSimulator.fight(player, monster, rnd);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long fightThreads4() {
+        return PveBattleSimulator.fight(player, monster, rnd);
+    }
+}
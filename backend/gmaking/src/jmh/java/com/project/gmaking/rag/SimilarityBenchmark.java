@@ -0,0 +1,96 @@
+package com.project.gmaking.rag;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가이드 검색 1회(상위 4개) 비용 비교.
+ * - legacyVectorIO : 기존 MysqlRetriever 방식 (BLOB 디코딩 + VectorIO.cosine + 전체 정렬)
+ * - float32*       : SimilarityEngine 정규화 행렬 내적 (Vector API / 스칼라)
+ * - int8Rescore    : int8 후보 검색 + float32 재채점
+ *
+ * ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimilarityBenchmark {
+
+    private static final int K = 4;
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    @Param({"1536"})
+    int dim;
+
+    private List<byte[]> blobs;
+    private float[] query;
+    private SimilarityEngine float32;
+    private SimilarityEngine float32Scalar;
+    private SimilarityEngine int8;
+    private SimilarityEngine.Query q32;
+    private SimilarityEngine.Query q32Scalar;
+    private SimilarityEngine.Query q8;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        blobs = new ArrayList<>(rows);
+        float32 = new SimilarityEngine(rows, dim, false, 1, VectorKernels.get());
+        float32Scalar = new SimilarityEngine(rows, dim, false, 1, VectorKernels.scalar());
+        int8 = new SimilarityEngine(rows, dim, true, 4, VectorKernels.get());
+
+        for (int r = 0; r < rows; r++) {
+            float[] v = randomVector(rnd);
+            blobs.add(VectorIO.toBytes(v));
+            float32.set(r, v);
+            float32Scalar.set(r, v);
+            int8.set(r, v);
+        }
+        query = randomVector(rnd);
+        q32 = float32.prepare(query);
+        q32Scalar = float32Scalar.prepare(query);
+        q8 = int8.prepare(query);
+    }
+
+    private float[] randomVector(SplittableRandom rnd) {
+        float[] v = new float[dim];
+        for (int i = 0; i < dim; i++) v[i] = (float) rnd.nextGaussian();
+        return v;
+    }
+
+    @Benchmark
+    public int[] legacyVectorIO() {
+        Integer[] idx = new Integer[rows];
+        double[] scores = new double[rows];
+        for (int r = 0; r < rows; r++) {
+            idx[r] = r;
+            scores[r] = VectorIO.cosine(query, VectorIO.toFloatArray(blobs.get(r)));
+        }
+        Arrays.sort(idx, (a, b) -> Double.compare(scores[b], scores[a]));
+        int[] out = new int[K];
+        for (int i = 0; i < K; i++) out[i] = idx[i];
+        return out;
+    }
+
+    @Benchmark
+    public int[] float32Kernel() {
+        return float32.topK(q32, K);
+    }
+
+    @Benchmark
+    public int[] float32Scalar() {
+        return float32Scalar.topK(q32Scalar, K);
+    }
+
+    @Benchmark
+    public int[] int8Rescore() {
+        return int8.topK(q8, K);
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.gmaking.admin.controller;
 
 import com.project.gmaking.admin.service.AdminService;
+import com.project.gmaking.admin.service.BalanceSimulationService;
 import com.project.gmaking.admin.vo.*;
 import com.project.gmaking.login.vo.LoginVO;
 
@@ -22,6 +23,7 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    private final BalanceSimulationService balanceSimulationService;
 
     private AdminSearchCriteria createCriteria(int page, int pageSize, String searchKeyword) {
         return new AdminSearchCriteria(page, pageSize, searchKeyword);
@@ -333,4 +335,24 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 몬스터 밸런스 시뮬레이션 (DB 변경 없음)
+     * POST /api/admin/balance/simulate?iterations=20000&seed=42
+     * body(선택): 몬스터 후보 목록(JSON) - 없으면 등록된 전체 몬스터로 실행
+     */
+    @PostMapping("/balance/simulate")
+    public ResponseEntity<Map<String, Object>> simulateBalance(
+            @RequestParam(defaultValue = "20000") int iterations,
+            @RequestParam(required = false) Long seed,
+            @RequestBody(required = false) List<MonsterVO> candidates
+    ) {
+        try {
+            return ResponseEntity.ok(balanceSimulationService.simulate(iterations, seed, candidates));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
@@ -60,4 +60,8 @@ public interface AdminDAO {
     void updateImage(ImageVO imageVO);
     Integer selectMonsterImageId(int monsterId);
     void deleteMonster(int monsterId);
+
+    // 9. 밸런스 시뮬레이션 (등급별 능력치 표본, 전체 몬스터)
+    List<BalanceStatSampleVO> selectCharacterStatsForBalance(int limit);
+    List<MonsterVO> selectMonstersForBalance();
 }
\ No newline at end of file
@@ -5,6 +5,10 @@ import com.project.gmaking.admin.vo.*;
 import com.project.gmaking.character.service.GcsService;
 import com.project.gmaking.character.vo.ImageUploadResponseVO;
 import com.project.gmaking.login.vo.LoginVO;
+import com.project.gmaking.pve.service.MonsterCatalog;
+import com.project.gmaking.pvp.service.PvpMatchmakingIndex;
+import com.project.gmaking.ranking.dao.RankingStatDAO;
+import com.project.gmaking.ranking.service.RankingBoards;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +27,10 @@ public class AdminService {
 
     private final AdminDAO adminDAO;
     private final GcsService gcsService;
+    private final MonsterCatalog monsterCatalog;
+    private final PvpMatchmakingIndex matchmakingIndex;
+    private final RankingBoards rankingBoards;
+    private final RankingStatDAO rankingStatDAO;
     private final String GCS_MONSTER_FOLDER = "monster";
 
     private String getCurrentAdminId() {
@@ -80,6 +88,9 @@ public class AdminService {
 
         // 캐릭터 정보 삭제 (tb_character)
         adminDAO.deleteCharacter(characterId);
+        rankingStatDAO.deleteRankingStat(characterId);
+        matchmakingIndex.remove(characterId);
+        rankingBoards.onCharacterRemoved(characterId);
 
         // 이미지 정보 삭제 (tb_image)
         if (imageId != null) {
@@ -321,6 +332,7 @@ public class AdminService {
         monsterVO.setCreatedBy(adminId);
 
         adminDAO.insertMonster(monsterVO);
+        monsterCatalog.invalidate();
     }
 
     /**
@@ -362,6 +374,7 @@ public class AdminService {
         // 2. tb_monster 정보 업데이트
         monsterVO.setUpdatedBy(adminId);
         adminDAO.updateMonster(monsterVO);
+        monsterCatalog.invalidate();
     }
 
     /**
@@ -384,6 +397,7 @@ public class AdminService {
         // DB 정보 삭제 (부모 -> 자식)
         adminDAO.deleteMonster(monsterId);
         adminDAO.deleteImage(imageId);
+        monsterCatalog.invalidate();
 
         // GCS에서 파일 삭제
         if (imageName != null) {
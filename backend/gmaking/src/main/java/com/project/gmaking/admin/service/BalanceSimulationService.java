@@ -0,0 +1,265 @@
+package com.project.gmaking.admin.service;
+
+import com.project.gmaking.admin.dao.AdminDAO;
+import com.project.gmaking.admin.vo.BalanceResultVO;
+import com.project.gmaking.admin.vo.BalanceStatSampleVO;
+import com.project.gmaking.admin.vo.MonsterVO;
+import com.project.gmaking.pve.dao.EncounterRateDAO;
+import com.project.gmaking.pve.service.PveBattleSimulator;
+import com.project.gmaking.pve.vo.EncounterRateVO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 몬스터 밸런스 몬테카를로 시뮬레이션 (관리자용, DB 는 읽기만).
+ * 등급별 실제 캐릭터 능력치 표본 × 몬스터마다 iterations 회 전투를 fork-join 으로 나눠 돌려
+ * 승률 / 평균 턴 수 / 턴 수 분산을 구하고, 등급별로 조우 확률(NORMAL/BOSS)을 반영한 기대 승률을 낸다.
+ * candidates 를 넘기면 DB 몬스터 대신 그 능력치로 돌려서 저장 전에 수치를 미리 볼 수 있다.
+ * 풀 전체를 쓰므로 동시에 1건만 실행 (실행 중이면 IllegalStateException).
+ */
+@Slf4j
+@Service
+public class BalanceSimulationService {
+
+    /** 리프 작업 1개가 처리하는 전투 수 */
+    private static final int LEAF_BATTLES = 4_096;
+
+    private final AdminDAO adminDAO;
+    private final EncounterRateDAO encounterRateDAO;
+    private final ForkJoinPool pool;
+
+    /** 등급별 표본을 뽑을 최근 캐릭터 수 */
+    @Value("${admin.balance.sample-limit:5000}")
+    private int sampleLimit;
+
+    /** 요청 1회 총 전투 수 상한 */
+    @Value("${admin.balance.max-total-battles:2000000}")
+    private long maxTotalBattles;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BalanceSimulationService(AdminDAO adminDAO, EncounterRateDAO encounterRateDAO,
+                                    @Value("${admin.balance.parallelism:0}") int parallelism) {
+        this.adminDAO = adminDAO;
+        this.encounterRateDAO = encounterRateDAO;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public Map<String, Object> simulate(int iterations, Long seed, List<MonsterVO> candidates) {
+        if (iterations <= 0) throw new IllegalArgumentException("iterations 는 1 이상이어야 합니다.");
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("이미 실행 중인 시뮬레이션이 있습니다. 끝난 뒤 다시 시도해 주세요.");
+        }
+        try {
+            return run(iterations, seed, candidates);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Map<String, Object> run(int iterations, Long seed, List<MonsterVO> candidates) {
+
+        Map<Integer, List<PveBattleSimulator.Combatant>> grades = loadGradeSamples();
+        List<MonsterVO> monsters = (candidates != null && !candidates.isEmpty())
+                ? candidates : adminDAO.selectMonstersForBalance();
+        if (grades.isEmpty() || monsters.isEmpty()) {
+            throw new IllegalArgumentException("시뮬레이션할 캐릭터 또는 몬스터가 없습니다.");
+        }
+        long total = (long) iterations * grades.size() * monsters.size();
+        if (total > maxTotalBattles) {
+            throw new IllegalArgumentException("총 전투 수가 상한(" + maxTotalBattles + ")을 넘습니다: " + total);
+        }
+
+        long usedSeed = (seed != null) ? seed : ThreadLocalRandom.current().nextLong();
+        SplittableRandom root = new SplittableRandom(usedSeed);
+
+        // 칸(등급 × 몬스터)마다 작업 생성 (분할 순서가 고정이라 같은 시드면 같은 결과)
+        List<BalanceResultVO> cells = new ArrayList<>();
+        List<BattleTask> tasks = new ArrayList<>();
+        for (Map.Entry<Integer, List<PveBattleSimulator.Combatant>> g : grades.entrySet()) {
+            PveBattleSimulator.Combatant[] players = g.getValue().toArray(new PveBattleSimulator.Combatant[0]);
+            for (MonsterVO m : monsters) {
+                BalanceResultVO cell = new BalanceResultVO();
+                cell.setGradeId(g.getKey());
+                cell.setMonsterId(m.getMonsterId());
+                cell.setMonsterName(m.getMonsterName());
+                cell.setMonsterType(m.getMonsterType());
+                cells.add(cell);
+                tasks.add(new BattleTask(players, combatantOf(m), 0, iterations, root.split()));
+            }
+        }
+
+        long start = System.nanoTime();
+        List<Acc> results = pool.submit(() -> {
+            List<Acc> out = new ArrayList<>(tasks.size());
+            for (BattleTask t : tasks) t.fork();
+            for (BattleTask t : tasks) out.add(t.join());
+            return out;
+        }).join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        for (int i = 0; i < cells.size(); i++) {
+            Acc a = results.get(i);
+            BalanceResultVO cell = cells.get(i);
+            cell.setBattles(a.battles);
+            cell.setWinRate((double) a.wins / a.battles);
+            cell.setMeanTurns(a.sumTurns / a.battles);
+            cell.setTurnVariance(Math.max(0.0, a.sumSqTurns / a.battles - Math.pow(a.sumTurns / a.battles, 2)));
+        }
+        log.info("[Balance] grades={}, monsters={}, battles={}, {}ms", grades.size(), monsters.size(), total, elapsedMs);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("seed", usedSeed);
+        result.put("iterations", iterations);
+        result.put("totalBattles", total);
+        result.put("elapsedMs", elapsedMs);
+        result.put("cells", cells);
+        result.put("grades", gradeSummary(grades, cells));
+        return result;
+    }
+
+    /** 등급별 표본 수 + 조우 확률 반영 기대 승률 (같은 타입 안에서는 몬스터 균등 선택) */
+    private List<Map<String, Object>> gradeSummary(Map<Integer, List<PveBattleSimulator.Combatant>> grades,
+                                                   List<BalanceResultVO> cells) {
+        double normalRate = encounterRateDAO.getEncounterRates().stream()
+                .filter(r -> "NORMAL".equalsIgnoreCase(r.getEncounterType()))
+                .mapToDouble(EncounterRateVO::getEncounterRate)
+                .findFirst()
+                .orElse(98.0) / 100.0;
+
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map.Entry<Integer, List<PveBattleSimulator.Combatant>> g : grades.entrySet()) {
+            double normalSum = 0, bossSum = 0;
+            int normalCount = 0, bossCount = 0;
+            for (BalanceResultVO c : cells) {
+                if (!g.getKey().equals(c.getGradeId())) continue;
+                if ("BOSS".equalsIgnoreCase(c.getMonsterType())) {
+                    bossSum += c.getWinRate();
+                    bossCount++;
+                } else {
+                    normalSum += c.getWinRate();
+                    normalCount++;
+                }
+            }
+            Double normalWin = normalCount > 0 ? normalSum / normalCount : null;
+            Double bossWin = bossCount > 0 ? bossSum / bossCount : null;
+            Double expected = null;
+            if (normalWin != null && bossWin != null) expected = normalRate * normalWin + (1 - normalRate) * bossWin;
+            else if (normalWin != null) expected = normalWin;
+            else if (bossWin != null) expected = bossWin;
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("gradeId", g.getKey());
+            row.put("samples", g.getValue().size());
+            row.put("normalWinRate", normalWin);
+            row.put("bossWinRate", bossWin);
+            row.put("expectedWinRate", expected);
+            out.add(row);
+        }
+        return out;
+    }
+
+    private Map<Integer, List<PveBattleSimulator.Combatant>> loadGradeSamples() {
+        Map<Integer, List<PveBattleSimulator.Combatant>> grades = new TreeMap<>();
+        for (BalanceStatSampleVO s : adminDAO.selectCharacterStatsForBalance(sampleLimit)) {
+            if (s.getGradeId() == null) continue;
+            grades.computeIfAbsent(s.getGradeId(), k -> new ArrayList<>()).add(new PveBattleSimulator.Combatant(
+                    "grade-" + s.getGradeId(),
+                    orDefault(s.getHp(), 1),
+                    orDefault(s.getAttack(), 1),
+                    orDefault(s.getDefense(), 1),
+                    orDefault(s.getSpeed(), 1),
+                    orDefault(s.getCriticalRate(), 1)));
+        }
+        return grades;
+    }
+
+    private static PveBattleSimulator.Combatant combatantOf(MonsterVO m) {
+        return new PveBattleSimulator.Combatant(
+                m.getMonsterName(),
+                orDefault(m.getMonsterHp(), 1),
+                orDefault(m.getMonsterAttack(), 0),
+                orDefault(m.getMonsterDefense(), 0),
+                orDefault(m.getMonsterSpeed(), 0),
+                orDefault(m.getMonsterCriticalRate(), 0));
+    }
+
+    private static int orDefault(Integer v, int def) {
+        return v != null ? v : def;
+    }
+
+    /** 전투 수 / 승리 수 / 턴 합 / 턴 제곱 합 */
+    private static final class Acc {
+        long battles;
+        long wins;
+        double sumTurns;
+        double sumSqTurns;
+
+        Acc merge(Acc o) {
+            battles += o.battles;
+            wins += o.wins;
+            sumTurns += o.sumTurns;
+            sumSqTurns += o.sumSqTurns;
+            return this;
+        }
+    }
+
+    /** [from, to) 전투를 반씩 나눠 fork, 리프에서는 표본 중 임의 캐릭터로 전투 */
+    private static final class BattleTask extends RecursiveTask<Acc> {
+        private final PveBattleSimulator.Combatant[] players;
+        private final PveBattleSimulator.Combatant monster;
+        private final long from;
+        private final long to;
+        private final SplittableRandom rnd;
+
+        BattleTask(PveBattleSimulator.Combatant[] players, PveBattleSimulator.Combatant monster,
+                   long from, long to, SplittableRandom rnd) {
+            this.players = players;
+            this.monster = monster;
+            this.from = from;
+            this.to = to;
+            this.rnd = rnd;
+        }
+
+        @Override
+        protected Acc compute() {
+            if (to - from <= LEAF_BATTLES) {
+                Acc acc = new Acc();
+                for (long i = from; i < to; i++) {
+                    PveBattleSimulator.Combatant p = players[players.length == 1 ? 0 : rnd.nextInt(players.length)];
+                    long r = PveBattleSimulator.fight(p, monster, rnd);
+                    long turns = r >>> 1;
+                    acc.battles++;
+                    acc.wins += r & 1;
+                    acc.sumTurns += turns;
+                    acc.sumSqTurns += (double) turns * turns;
+                }
+                return acc;
+            }
+            long mid = (from + to) >>> 1;
+            BattleTask right = new BattleTask(players, monster, mid, to, rnd.split());
+            BattleTask left = new BattleTask(players, monster, from, mid, rnd);
+            right.fork();
+            return left.compute().merge(right.join());
+        }
+    }
+}
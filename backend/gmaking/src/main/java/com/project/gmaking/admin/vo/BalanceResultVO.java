@@ -0,0 +1,16 @@
+package com.project.gmaking.admin.vo;
+
+import lombok.Data;
+
+/** 밸런스 시뮬레이션 결과 1칸 (등급 × 몬스터) */
+@Data
+public class BalanceResultVO {
+    private Integer gradeId;
+    private Integer monsterId;
+    private String monsterName;
+    private String monsterType;     // NORMAL, BOSS
+    private long battles;
+    private double winRate;         // 캐릭터 승률 (0~1)
+    private double meanTurns;
+    private double turnVariance;
+}
@@ -0,0 +1,14 @@
+package com.project.gmaking.admin.vo;
+
+import lombok.Data;
+
+/** 밸런스 시뮬레이션용 캐릭터 능력치 표본 (tb_character.GRADE_ID + tb_character_stat) */
+@Data
+public class BalanceStatSampleVO {
+    private Integer gradeId;
+    private Integer hp;
+    private Integer attack;
+    private Integer defense;
+    private Integer speed;
+    private Integer criticalRate;
+}
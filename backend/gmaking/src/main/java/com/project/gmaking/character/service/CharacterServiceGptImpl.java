@@ -7,6 +7,9 @@ import com.project.gmaking.login.dao.LoginDAO;
 import com.project.gmaking.login.vo.LoginVO;
 import com.project.gmaking.character.dao.CharacterStatDAO;
 import com.project.gmaking.security.JwtTokenProvider;
+import com.project.gmaking.pvp.service.PvpMatchmakingIndex;
+import com.project.gmaking.ranking.dao.RankingStatDAO;
+import com.project.gmaking.ranking.service.RankingBoards;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
@@ -30,6 +33,9 @@ public class CharacterServiceGptImpl implements CharacterServiceGpt {
     private final LoginDAO loginDAO;
     private final JwtTokenProvider jwtTokenProvider;
     private final BackgroundAi backgroundAi;
+    private final PvpMatchmakingIndex matchmakingIndex;
+    private final RankingBoards rankingBoards;
+    private final RankingStatDAO rankingStatDAO;
 
 
     public CharacterServiceGptImpl(
@@ -40,7 +46,10 @@ public class CharacterServiceGptImpl implements CharacterServiceGpt {
             LoginDAO loginDAO,
             JwtTokenProvider jwtTokenProvider,
             GptImageService gptImageService,
-            BackgroundAi backgroundAi
+            BackgroundAi backgroundAi,
+            PvpMatchmakingIndex matchmakingIndex,
+            RankingBoards rankingBoards,
+            RankingStatDAO rankingStatDAO
         ) {
 
         this.classificationService = classificationService;
@@ -51,6 +60,9 @@ public class CharacterServiceGptImpl implements CharacterServiceGpt {
         this.jwtTokenProvider = jwtTokenProvider;
         this.gptImageService = gptImageService;
         this.backgroundAi = backgroundAi;
+        this.matchmakingIndex = matchmakingIndex;
+        this.rankingBoards = rankingBoards;
+        this.rankingStatDAO = rankingStatDAO;
     }
 
     /**
@@ -182,6 +194,9 @@ public class CharacterServiceGptImpl implements CharacterServiceGpt {
             statVO.setCreatedBy(userId);
 
             characterStatDAO.insertCharacterStat(statVO);
+            rankingStatDAO.upsertStatTotal(characterId, totalStat);
+            matchmakingIndex.upsert(characterId, userId, totalStat);
+            rankingBoards.onCharacterCreated(characterId, totalStat);
 
             // 사용자 정보 업데이트 및 새 토큰 생성
 //            loginDAO.updateUserCharacterInfo(userId, finalData.getImageUrl());
@@ -6,25 +6,43 @@ import com.project.gmaking.chat.service.ChatEnterService;
 import com.project.gmaking.chat.service.ChatService;
 import com.project.gmaking.chat.vo.DialogueVO;
 import com.project.gmaking.chat.vo.EnterResponseVO;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @RestController
-@RequiredArgsConstructor
 @RequestMapping("/api/chat")
 public class ChatController {
     private final ChatService chatService;
     private final ChatEnterService chatEnterService;
     private final ChatUsageLogSevice chatUsageLogService;
     private final CharacterService characterService;
+    private final TaskExecutor chatStreamExecutor;
+
+    public ChatController(ChatService chatService,
+                          ChatEnterService chatEnterService,
+                          ChatUsageLogSevice chatUsageLogService,
+                          CharacterService characterService,
+                          @Qualifier("chatStreamExecutor") TaskExecutor chatStreamExecutor) {
+        this.chatService = chatService;
+        this.chatEnterService = chatEnterService;
+        this.chatUsageLogService = chatUsageLogService;
+        this.characterService = characterService;
+        this.chatStreamExecutor = chatStreamExecutor;
+    }
 
     // 채팅 입장: 페르소나 확인/생성 + 첫인사(프롬프트 기반) + 히스토리 반환
     @PostMapping("/{characterId}/enter")
@@ -87,6 +105,76 @@ public class ChatController {
         ));
     }
 
+    // 유저 메시지 전송 (SSE 스트리밍)
+    // event: token → 응답 조각, event: done → {reply, characterId}, event: error → 메시지
+    @PostMapping(value = "/{characterId}/send/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter sendMessageStream(
+            @PathVariable Integer characterId,
+            @RequestBody Map<String, String> body
+    ) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userId = auth.getName();
+        String message = body.get("message");
+
+        SseEmitter emitter = new SseEmitter(180_000L);
+        if (message == null || message.isBlank()) {
+            sendQuietly(emitter, "error", "message는 필수입니다.");
+            emitter.complete();
+            return emitter;
+        }
+
+        // 클라이언트가 끊어도 생성/저장은 끝까지 진행 (전송만 중단)
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+
+        try {
+            chatStreamExecutor.execute(() -> {
+                String usageStatus = "success";
+                String errorMessage = null;
+                String reply;
+                try {
+                    reply = chatService.sendStream(userId, characterId, message, token -> {
+                        if (open.get() && !sendQuietly(emitter, "token", token)) open.set(false);
+                    });
+                } catch (Exception e) {
+                    usageStatus = "error";
+                    errorMessage = e.getMessage();
+                    reply = "오류 발생!";
+                }
+
+                chatUsageLogService.upsertChatUsage(
+                        userId,
+                        "chat",
+                        "gemini-2.0-flash",
+                        usageStatus,
+                        errorMessage,
+                        userId
+                );
+
+                if (open.get()) {
+                    sendQuietly(emitter, "done", Map.of("reply", reply, "characterId", characterId));
+                    emitter.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("[ChatStream] executor saturated userId={} characterId={}", userId, characterId);
+            sendQuietly(emitter, "error", "요청이 많아 잠시 후 다시 시도해 주세요.");
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private static boolean sendQuietly(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
     // 최근 대화 내역 불러오기
     @GetMapping("/{characterId}/history")
     public ResponseEntity<List<DialogueVO>> getHistory(
@@ -0,0 +1,36 @@
+package com.project.gmaking.chat.controller;
+
+import com.project.gmaking.chat.llm.ChatGptClientSdkImpl;
+import com.project.gmaking.chat.llm.GeminiClientSdkImpl;
+import com.project.gmaking.chat.llm.LlmCircuitBreakers;
+import com.project.gmaking.chat.nlp.CallingNameExtractor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** LLM 프로바이더 호출 지표 (관리자용, 접근 제한은 SecurityConfig 의 /api/admin/** ADMIN 규칙) */
+@RestController
+@RequestMapping("/api/admin/llm")
+@RequiredArgsConstructor
+public class LlmStatsController {
+
+    private final GeminiClientSdkImpl geminiClient;
+    private final ChatGptClientSdkImpl chatGptClient;
+    private final CallingNameExtractor callingNameExtractor;
+    private final LlmCircuitBreakers llmCircuitBreakers;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("gemini", geminiClient.stats());
+        out.put("openai", chatGptClient.stats());
+        out.put("breakers", llmCircuitBreakers.stats());
+        out.put("callingNamePrefilter", callingNameExtractor.stats());
+        return ResponseEntity.ok(out);
+    }
+}
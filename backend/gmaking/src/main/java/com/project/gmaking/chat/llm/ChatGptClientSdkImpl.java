@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.gmaking.chat.constant.DialogueSender;
 import com.project.gmaking.chat.vo.DialogueVO;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +14,10 @@ import org.springframework.stereotype.Component;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,15 +32,40 @@ public class ChatGptClientSdkImpl implements LlmClient {
     @Value("${openai.model:gpt-4o-mini}")
     private String model;
 
-    @Value("${openai.timeout.ms:15000}")
-    private int timeoutMs;
-
     private final ObjectMapper om = new ObjectMapper();
+    private final LlmProviderLimiter limiter;
+
+    /** 공유 클라이언트: 커넥션 풀 + keep-alive + HTTP/2 (호출마다 새로 만들지 않음) */
+    private final OkHttpClient http;
 
-    private OkHttpClient http() {
-        return new OkHttpClient.Builder()
+    public ChatGptClientSdkImpl(@Value("${openai.timeout.ms:15000}") int timeoutMs,
+                                @Value("${openai.pool.max-idle:16}") int maxIdle,
+                                @Value("${openai.pool.keep-alive.ms:300000}") long keepAliveMs,
+                                @Value("${openai.max-concurrent:32}") int maxConcurrent,
+                                @Value("${openai.acquire-timeout.ms:5000}") long acquireTimeoutMs) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(1, maxConcurrent));
+        dispatcher.setMaxRequestsPerHost(Math.max(1, maxConcurrent));
+
+        this.http = new OkHttpClient.Builder()
                 .callTimeout(Duration.ofMillis(timeoutMs))
+                .connectionPool(new ConnectionPool(maxIdle, keepAliveMs, TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .retryOnConnectionFailure(true)
                 .build();
+        this.limiter = new LlmProviderLimiter("openai", maxConcurrent, acquireTimeoutMs);
+    }
+
+    @PreDestroy
+    void close() {
+        http.dispatcher().executorService().shutdown();
+        http.connectionPool().evictAll();
+    }
+
+    /** 동시 호출/지연 지표 */
+    public Map<String, Object> stats() {
+        return limiter.stats();
     }
 
     private record Msg(String role, String content) {}
@@ -68,7 +97,7 @@ public class ChatGptClientSdkImpl implements LlmClient {
 
         // 429/500/503 지수 백오프 재시도
         return withRetry(() -> {
-            try (Response res = http().newCall(req).execute()) {
+            try (Response res = http.newCall(req).execute()) {
                 if (!res.isSuccessful()) {
                     int code = res.code();
                     String err = res.body() != null ? res.body().string() : "";
@@ -82,6 +111,67 @@ public class ChatGptClientSdkImpl implements LlmClient {
         }, "openai:chat");
     }
 
+    /**
+     * stream=true 호출. SSE 의 "data: {...}" 줄마다 choices[0].delta.content 를 onToken 으로 전달.
+     * 첫 조각 전 실패만 withRetry 로 재시도 (이미 흘려보낸 뒤 끊기면 중복 방지 위해 실패 처리).
+     */
+    private String callOpenAiStream(List<Msg> msgs, Consumer<String> onToken) throws Exception {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("OpenAI API key is missing. Set 'openai.api.key' or env 'OPENAI_API_KEY'.");
+        }
+
+        var arr = om.createArrayNode();
+        for (Msg m : msgs) {
+            arr.add(om.createObjectNode()
+                    .put("role", m.role())
+                    .put("content", m.content() == null ? "" : m.content()));
+        }
+        var root = om.createObjectNode()
+                .put("model", model)
+                .put("stream", true);
+        root.set("messages", arr);
+
+        Request req = new Request.Builder()
+                .url("https://api.openai.com/v1/chat/completions")
+                .addHeader("Authorization", "Bearer " + apiKey)
+                .addHeader("Content-Type", "application/json")
+                .addHeader("Accept", "text/event-stream")
+                .post(RequestBody.create(root.toString(), MediaType.parse("application/json")))
+                .build();
+
+        StringBuilder full = new StringBuilder();
+        withRetry(() -> {
+            try (Response res = http.newCall(req).execute()) {
+                if (!res.isSuccessful()) {
+                    int code = res.code();
+                    String err = res.body() != null ? res.body().string() : "";
+                    if (code == 429) throw new QuotaExceededException("OpenAI quota/rate limit exceeded: " + err, null);
+                    throw new LlmException("OpenAI error: " + err, code, null);
+                }
+                if (res.body() == null) return null;
+
+                var source = res.body().source();
+                String line;
+                while ((line = source.readUtf8Line()) != null) {
+                    if (!line.startsWith("data:")) continue;
+                    String data = line.substring(5).trim();
+                    if (data.equals("[DONE]")) break;
+                    if (data.isEmpty()) continue;
+
+                    String piece = om.readTree(data).path("choices").path(0).path("delta").path("content").asText("");
+                    if (piece.isEmpty()) continue;
+                    full.append(piece);
+                    onToken.accept(piece);
+                }
+            } catch (java.io.IOException e) {
+                if (full.length() > 0) throw new LlmException("OpenAI stream interrupted", -1, e);
+                throw e;
+            }
+            return null;
+        }, "openai:chatStream");
+        return full.toString();
+    }
+
     @FunctionalInterface
     private interface SupplierX<T> { T get() throws Exception; }
 
@@ -92,7 +182,7 @@ public class ChatGptClientSdkImpl implements LlmClient {
         while (attempt < maxAttempts) {
             attempt++;
             try {
-                return work.get();
+                return limiter.call(work::get);
             } catch (QuotaExceededException qe) {
                 // 쿼터 초과는 즉시 포기 → Fallback이 잡아서 전환
                 throw qe;
@@ -171,6 +261,29 @@ public class ChatGptClientSdkImpl implements LlmClient {
         return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
     }
 
+    @Override
+    public String chatWithHistoryStream(String systemPrompt, List<DialogueVO> historyChrono,
+                                        String latestUserMessage, Consumer<String> onToken) throws Exception {
+        List<Msg> msgs = new ArrayList<>();
+        if (systemPrompt != null && !systemPrompt.isBlank()) {
+            msgs.add(new Msg("system", systemPrompt));
+        }
+        if (historyChrono != null) {
+            for (DialogueVO d : historyChrono) {
+                String content = nullToEmpty(d.getContent());
+                if (content.isBlank()) continue;
+                boolean isAssistant = d.getSender() != null && d.getSender() != DialogueSender.USER;
+                msgs.add(new Msg(isAssistant ? "assistant" : "user", content));
+            }
+        }
+        msgs.add(new Msg("user", latestUserMessage));
+        String text = callOpenAiStream(msgs, onToken);
+
+        LlmContext.set(model);
+
+        return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
+    }
+
     @Override
     public SummarizeResult summarizeAndExtract(String existingSummary, String patch, String locale) throws Exception {
         // 같은 포맷을 그대로 재사용 — Gemini와 동일한 출력 JSON 스키마 기대
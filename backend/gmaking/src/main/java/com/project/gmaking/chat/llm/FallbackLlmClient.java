@@ -1,86 +1,289 @@
 package com.project.gmaking.chat.llm;
 
 import com.project.gmaking.chat.vo.DialogueVO;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * 1차(Gemini) → 2차(ChatGPT) 폴백.
+ * - 프로바이더×오퍼레이션별 서킷 브레이커: 1차가 OPEN 이면 재시도 없이 바로 2차
+ * - hedge 모드(선택): 1차가 최근 지연 백분위를 넘기면 2차를 같이 쏘고 먼저 성공한 응답 사용
+ * 스트리밍은 중복 출력 문제로 헤지하지 않고 브레이커만 적용.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class FallbackLlmClient implements LlmClient {
 
+    /** 헤지 설정: percentile 지연(최소 minDelayMs) 후 2차 발사, 표본이 적으면 defaultDelayMs */
+    public record HedgeOptions(boolean enabled, double percentile, long minDelayMs, long defaultDelayMs) {
+        public static HedgeOptions disabled() {
+            return new HedgeOptions(false, 0.95, 0L, 0L);
+        }
+    }
+
+    private static final int HEDGE_MIN_SAMPLES = 10;
+
     private final LlmClient primary;   // Gemini
     private final LlmClient secondary; // ChatGPT
     private final int retryOnPrimary;  // e.g. 1
+    private final String primaryName;
+    private final String secondaryName;
+    private final LlmCircuitBreakers breakers;
+    private final HedgeOptions hedge;
+    private final Executor hedgeExecutor;
+
+    public FallbackLlmClient(LlmClient primary, LlmClient secondary, int retryOnPrimary) {
+        this(primary, secondary, retryOnPrimary, "primary", "secondary",
+                new LlmCircuitBreakers(20, 10, 0.5, 30_000L), HedgeOptions.disabled(), null);
+    }
+
+    public FallbackLlmClient(LlmClient primary, LlmClient secondary, int retryOnPrimary,
+                             String primaryName, String secondaryName,
+                             LlmCircuitBreakers breakers, HedgeOptions hedge, Executor hedgeExecutor) {
+        this.primary = primary;
+        this.secondary = secondary;
+        this.retryOnPrimary = retryOnPrimary;
+        this.primaryName = primaryName;
+        this.secondaryName = secondaryName;
+        this.breakers = breakers;
+        this.hedge = (hedgeExecutor == null) ? HedgeOptions.disabled() : hedge;
+        this.hedgeExecutor = hedgeExecutor;
+    }
 
     @Override
     public String chat(String systemPrompt, String userMessage) throws Exception {
-        int attempt = 0;
-        while (true) {
-            try {
-                attempt++;
-                return primary.chat(systemPrompt, userMessage);
-            } catch (QuotaExceededException qe) {
-                log.warn("[Fallback] Gemini quota exceeded -> switch to ChatGPT");
-                break;
-            } catch (LlmException le) {
-                log.warn("[Fallback] Gemini failed status={}, attempt={}", le.getStatus(), attempt);
-                if (attempt > retryOnPrimary) break;
-                Thread.sleep(300L * attempt);
-            } catch (Exception e) {
-                log.warn("[Fallback] Gemini unexpected error attempt={}", attempt, e);
-                if (attempt > retryOnPrimary) break;
-                Thread.sleep(300L * attempt);
-            }
-        }
-        return secondary.chat(systemPrompt, userMessage);
+        return execute("chat",
+                () -> primary.chat(systemPrompt, userMessage),
+                () -> secondary.chat(systemPrompt, userMessage));
     }
 
     @Override
     public String chatWithHistory(String systemPrompt, List<DialogueVO> historyChrono, String latestUserMessage) throws Exception {
+        return execute("chatWithHistory",
+                () -> primary.chatWithHistory(systemPrompt, historyChrono, latestUserMessage),
+                () -> secondary.chatWithHistory(systemPrompt, historyChrono, latestUserMessage));
+    }
+
+    /**
+     * 스트리밍은 첫 토큰을 흘려보내기 전까지만 재시도/전환 가능.
+     * 이미 일부를 보낸 뒤 실패하면 섞인 응답이 되지 않도록 그대로 예외 전파.
+     */
+    @Override
+    public String chatWithHistoryStream(String systemPrompt, List<DialogueVO> historyChrono,
+                                        String latestUserMessage, Consumer<String> onToken) throws Exception {
+        AtomicBoolean emitted = new AtomicBoolean(false);
+        Consumer<String> tracking = t -> {
+            emitted.set(true);
+            onToken.accept(t);
+        };
+
+        LlmCircuitBreaker pb = breakers.get(primaryName, "chatStream");
         int attempt = 0;
-        while (true) {
+        while (pb.tryAcquire()) {
+            long start = System.nanoTime();
             try {
                 attempt++;
-                return primary.chatWithHistory(systemPrompt, historyChrono, latestUserMessage);
+                String r = primary.chatWithHistoryStream(systemPrompt, historyChrono, latestUserMessage, tracking);
+                pb.onSuccess(elapsedMs(start));
+                return r;
             } catch (QuotaExceededException qe) {
-                log.warn("[Fallback] Gemini quota exceeded -> switch to ChatGPT");
+                pb.onFailure();
+                if (emitted.get()) throw qe;
+                log.warn("[Fallback] {} quota exceeded -> switch to {} (stream)", primaryName, secondaryName);
                 break;
-            } catch (LlmException le) {
-                log.warn("[Fallback] Gemini failed status={}, attempt={}", le.getStatus(), attempt);
-                if (attempt > retryOnPrimary) break;
-                Thread.sleep(300L * attempt);
             } catch (Exception e) {
-                log.warn("[Fallback] Gemini unexpected error attempt={}", attempt, e);
+                pb.onFailure();
+                if (emitted.get()) throw e;
+                log.warn("[Fallback] {} stream failed attempt={} ({})", primaryName, attempt, e.toString());
                 if (attempt > retryOnPrimary) break;
                 Thread.sleep(300L * attempt);
             }
         }
-        return secondary.chatWithHistory(systemPrompt, historyChrono, latestUserMessage);
+        if (attempt == 0) log.info("[Fallback] {} breaker {} -> {} (stream)", primaryName, pb.state(), secondaryName);
+        return callSecondary("chatStream",
+                () -> secondary.chatWithHistoryStream(systemPrompt, historyChrono, latestUserMessage, onToken));
     }
 
     @Override
     public SummarizeResult summarizeAndExtract(String existingSummary, String patch, String locale) throws Exception {
+        return execute("summarizeAndExtract",
+                () -> primary.summarizeAndExtract(existingSummary, patch, locale),
+                () -> secondary.summarizeAndExtract(existingSummary, patch, locale));
+    }
+
+    /** 브레이커 상태 (관리자 지표용) */
+    public LlmCircuitBreakers breakers() {
+        return breakers;
+    }
+
+    // ---------- core ----------
+
+    @FunctionalInterface
+    private interface LlmCall<T> { T call() throws Exception; }
+
+    private <T> T execute(String op, LlmCall<T> p, LlmCall<T> s) throws Exception {
+        LlmCircuitBreaker pb = breakers.get(primaryName, op);
+        if (!pb.tryAcquire()) {
+            log.info("[Fallback] {} breaker {} op={} -> {}", primaryName, pb.state(), op, secondaryName);
+            return callSecondary(op, s);
+        }
+        if (hedge.enabled()) {
+            return hedged(op, pb, p, s);
+        }
+
         int attempt = 0;
         while (true) {
+            long start = System.nanoTime();
             try {
                 attempt++;
-                return primary.summarizeAndExtract(existingSummary, patch, locale);
+                T r = p.call();
+                pb.onSuccess(elapsedMs(start));
+                return r;
             } catch (QuotaExceededException qe) {
-                log.warn("[Fallback] Gemini quota exceeded -> switch to ChatGPT");
-                log.info("[LLM] using SECONDARY(OpenAI) for op=chatWithHistory");
+                pb.onFailure();
+                log.warn("[Fallback] {} quota exceeded op={} -> switch to {}", primaryName, op, secondaryName);
                 break;
             } catch (LlmException le) {
-                log.warn("[Fallback] Gemini failed status={}, attempt={}", le.getStatus(), attempt);
-                if (attempt > retryOnPrimary) break;
+                pb.onFailure();
+                log.warn("[Fallback] {} failed op={} status={}, attempt={}", primaryName, op, le.getStatus(), attempt);
+                if (attempt > retryOnPrimary || !pb.tryAcquire()) break;
                 Thread.sleep(300L * attempt);
             } catch (Exception e) {
-                log.warn("[Fallback] Gemini unexpected error attempt={}", attempt, e);
-                if (attempt > retryOnPrimary) break;
+                pb.onFailure();
+                log.warn("[Fallback] {} unexpected error op={} attempt={}", primaryName, op, attempt, e);
+                if (attempt > retryOnPrimary || !pb.tryAcquire()) break;
                 Thread.sleep(300L * attempt);
             }
         }
-        return secondary.summarizeAndExtract(existingSummary, patch, locale);
+        return callSecondary(op, s);
+    }
+
+    /** 2차 호출 (2차 브레이커도 OPEN 이면 바로 실패) */
+    private <T> T callSecondary(String op, LlmCall<T> s) throws Exception {
+        LlmCircuitBreaker sb = breakers.get(secondaryName, op);
+        if (!sb.tryAcquire()) {
+            throw new LlmException("All LLM providers unavailable (circuit open) op=" + op, 503, null);
+        }
+        long start = System.nanoTime();
+        try {
+            T r = s.call();
+            sb.onSuccess(elapsedMs(start));
+            return r;
+        } catch (Exception e) {
+            sb.onFailure();
+            throw e;
+        }
+    }
+
+    /**
+     * 1차를 먼저 보내고 헤지 지연 안에 끝나지 않으면 2차도 보내서 먼저 성공한 쪽 사용.
+     * 진 쪽은 취소 표시만 하고(원격 호출은 끝까지 진행) 결과는 각자 브레이커에 기록된다.
+     */
+    private <T> T hedged(String op, LlmCircuitBreaker pb, LlmCall<T> p, LlmCall<T> s) throws Exception {
+        CompletableFuture<Result<T>> pf;
+        try {
+            pf = CompletableFuture.supplyAsync(() -> timed(pb, p), hedgeExecutor);
+        } catch (RejectedExecutionException re) {
+            // 헤지 풀 포화: 호출 스레드에서 1차만 직접 호출
+            try {
+                return unwrap(timed(pb, p));
+            } catch (CompletionException ce) {
+                log.warn("[Fallback] {} failed op={} ({}) -> {}", primaryName, op, ce.getCause(), secondaryName);
+                return callSecondary(op, s);
+            }
+        }
+        long delay = hedgeDelayMs(pb);
+        try {
+            return unwrap(pf.get(delay, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException te) {
+            // 아래에서 2차 발사
+        } catch (ExecutionException ee) {
+            log.warn("[Fallback] {} failed op={} before hedge ({}) -> {}", primaryName, op, ee.getCause(), secondaryName);
+            return callSecondary(op, s);
+        }
+
+        LlmCircuitBreaker sb = breakers.get(secondaryName, op);
+        if (!sb.tryAcquire()) {
+            return unwrap(await(pf));
+        }
+        log.info("[Fallback] hedge op={} after {}ms -> {}", op, delay, secondaryName);
+        CompletableFuture<Result<T>> sf;
+        try {
+            sf = CompletableFuture.supplyAsync(() -> timed(sb, s), hedgeExecutor);
+        } catch (RejectedExecutionException re) {
+            sb.release();
+            return unwrap(await(pf));
+        }
+
+        CompletableFuture<Result<T>> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        pf.whenComplete((v, e) -> settle(winner, failures, v, e));
+        sf.whenComplete((v, e) -> settle(winner, failures, v, e));
+
+        Result<T> r = await(winner);
+        pf.cancel(false);
+        sf.cancel(false);
+        return unwrap(r);
+    }
+
+    private long hedgeDelayMs(LlmCircuitBreaker pb) {
+        long p = pb.latencyPercentile(hedge.percentile(), HEDGE_MIN_SAMPLES);
+        return (p < 0) ? hedge.defaultDelayMs() : Math.max(hedge.minDelayMs(), p);
+    }
+
+    private static <T> void settle(CompletableFuture<Result<T>> winner, AtomicInteger failures,
+                                   Result<T> v, Throwable e) {
+        if (e == null) {
+            winner.complete(v);
+        } else if (failures.incrementAndGet() == 2) {
+            winner.completeExceptionally(e);
+        }
+    }
+
+    /** 워커 스레드에서 호출 + 브레이커 기록, 모델명(LlmContext)은 결과에 담아 호출 스레드로 넘김 */
+    private static <T> Result<T> timed(LlmCircuitBreaker b, LlmCall<T> call) {
+        long start = System.nanoTime();
+        try {
+            T v = call.call();
+            b.onSuccess(elapsedMs(start));
+            return new Result<>(v, LlmContext.get());
+        } catch (Exception e) {
+            b.onFailure();
+            throw new CompletionException(e);
+        } finally {
+            LlmContext.clear();
+        }
+    }
+
+    private static <T> T unwrap(Result<T> r) {
+        if (r.model() != null) LlmContext.set(r.model());
+        return r.value();
     }
-}
\ No newline at end of file
+
+    private static <T> T await(CompletableFuture<T> f) throws Exception {
+        try {
+            return f.get();
+        } catch (ExecutionException ee) {
+            Throwable c = ee.getCause();
+            while (c instanceof CompletionException && c.getCause() != null) c = c.getCause();
+            if (c instanceof Exception ex) throw ex;
+            throw ee;
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private record Result<T>(T value, String model) {}
+}
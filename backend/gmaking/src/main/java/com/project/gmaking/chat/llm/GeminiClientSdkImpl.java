@@ -6,18 +6,22 @@ import java.util.concurrent.ThreadLocalRandom;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
 import com.google.genai.types.Content;
 import com.google.genai.types.GenerateContentResponse;
 import com.google.genai.types.HttpOptions;
 import com.google.genai.types.Part;
 import com.project.gmaking.chat.constant.DialogueSender;
 import com.project.gmaking.chat.vo.DialogueVO;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,20 +35,57 @@ public class GeminiClientSdkImpl implements LlmClient {
     @Value("${gemini.model.name:gemini-2.0-flash}")
     private String modelName;
 
+    @Value("${gemini.timeout.ms:30000}")
+    private int timeoutMs;
+
     private final ObjectMapper om = new ObjectMapper();
+    private final LlmProviderLimiter limiter;
+
+    /** 공유 클라이언트 (내부 HTTP 커넥션 풀/TLS 세션을 채팅·요약·호칭 호출이 같이 씀) */
+    private volatile Client client;
+
+    public GeminiClientSdkImpl(@Value("${gemini.max-concurrent:32}") int maxConcurrent,
+                               @Value("${gemini.acquire-timeout.ms:5000}") long acquireTimeoutMs) {
+        this.limiter = new LlmProviderLimiter("gemini", maxConcurrent, acquireTimeoutMs);
+    }
 
-    /** .env의 키 사용 */
+    /** .env의 키 사용 - 최초 호출 시 한 번만 생성 */
     private Client buildClient() {
-        if (apiKey == null || apiKey.isBlank()) {
-            // 여기까지 오면 .env 로드/WD 문제이므로 명확히 터뜨려 원인 노출
-            throw new IllegalStateException(
-                    "Gemini API key is missing. Check 'gemini.api.key' or env 'GEMINI_API_KEY'."
-            );
+        Client c = client;
+        if (c != null) return c;
+        synchronized (this) {
+            if (client == null) {
+                if (apiKey == null || apiKey.isBlank()) {
+                    // 여기까지 오면 .env 로드/WD 문제이므로 명확히 터뜨려 원인 노출
+                    throw new IllegalStateException(
+                            "Gemini API key is missing. Check 'gemini.api.key' or env 'GEMINI_API_KEY'."
+                    );
+                }
+                client = Client.builder()
+                        .apiKey(apiKey)
+                        .httpOptions(HttpOptions.builder().apiVersion("v1").timeout(timeoutMs).build())
+                        .build();
+            }
+            return client;
         }
-        return Client.builder()
-                .apiKey(apiKey)
-                .httpOptions(HttpOptions.builder().apiVersion("v1").build())
-                .build();
+    }
+
+    @PreDestroy
+    void close() {
+        Client c = client;
+        client = null;
+        if (c != null) {
+            try {
+                c.close();
+            } catch (Exception e) {
+                log.debug("[LLM] gemini client close failed", e);
+            }
+        }
+    }
+
+    /** 동시 호출/지연 지표 */
+    public Map<String, Object> stats() {
+        return limiter.stats();
     }
 
     @Override
@@ -57,6 +98,61 @@ public class GeminiClientSdkImpl implements LlmClient {
                                   List<DialogueVO> historyChrono,
                                   String latestUserMessage) throws Exception {
         Client client = buildClient();
+        List<Content> contents = buildContents(systemPrompt, historyChrono, latestUserMessage);
+
+        // 3) 모델 호출
+        GenerateContentResponse res = withRetry(
+                () -> client.models.generateContent(modelName, contents, null),
+                "chatWithHistory:" + modelName
+        );
+        String text = res.text();
+
+        LlmContext.set(modelName);
+
+        return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
+    }
+
+    /**
+     * 스트리밍 대화 (generateContentStream). 조각이 올 때마다 onToken 호출.
+     * 첫 조각을 받기 전 실패만 재시도하고, 이미 흘려보낸 뒤 끊기면 그대로 실패 처리(중복 출력 방지).
+     */
+    @Override
+    public String chatWithHistoryStream(String systemPrompt,
+                                        List<DialogueVO> historyChrono,
+                                        String latestUserMessage,
+                                        Consumer<String> onToken) throws Exception {
+        Client client = buildClient();
+        List<Content> contents = buildContents(systemPrompt, historyChrono, latestUserMessage);
+        StringBuilder full = new StringBuilder();
+
+        withRetry(() -> {
+            try (ResponseStream<GenerateContentResponse> stream =
+                         client.models.generateContentStream(modelName, contents, null)) {
+                for (GenerateContentResponse chunk : stream) {
+                    String piece = chunk.text();
+                    if (piece == null || piece.isEmpty()) continue;
+                    full.append(piece);
+                    onToken.accept(piece);
+                }
+            } catch (ApiException e) {
+                if (full.length() > 0) {
+                    throw new LlmException("Gemini stream interrupted", tryGetStatusCode(e), e);
+                }
+                throw e;
+            }
+            return null;
+        }, "chatWithHistoryStream:" + modelName);
+
+        LlmContext.set(modelName);
+
+        String text = full.toString().trim();
+        return text.isBlank() ? "빈 응답입니다." : text;
+    }
+
+    /** 시스템 프롬프트(선행 user) + 히스토리 + 이번 발화 */
+    private List<Content> buildContents(String systemPrompt,
+                                        List<DialogueVO> historyChrono,
+                                        String latestUserMessage) {
         List<Content> contents = new ArrayList<>();
 
         // 0) 시스템 프롬프트(선행 user 역할로 전달)
@@ -92,17 +188,7 @@ public class GeminiClientSdkImpl implements LlmClient {
                         .parts(List.of(Part.fromText(latestUserMessage)))
                         .build()
         );
-
-        // 3) 모델 호출
-        GenerateContentResponse res = withRetry(
-                () -> client.models.generateContent(modelName, contents, null),
-                "chatWithHistory:" + modelName
-        );
-        String text = res.text();
-
-        LlmContext.set(modelName);
-
-        return (text == null || text.isBlank()) ? "빈 응답입니다." : text.trim();
+        return contents;
     }
 
     // ===========================
@@ -295,7 +381,7 @@ public class GeminiClientSdkImpl implements LlmClient {
         while (attempt < maxAttempts) {
             attempt++;
             try {
-                return work.get();
+                return limiter.call(work::get);
             } catch (ApiException e) {
                 int code = tryGetStatusCode(e);
                 // 429/500/503 은 재시도
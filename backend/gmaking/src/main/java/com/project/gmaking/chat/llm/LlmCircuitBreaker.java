@@ -0,0 +1,151 @@
+package com.project.gmaking.chat.llm;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 프로바이더×오퍼레이션 단위 서킷 브레이커.
+ * - CLOSED: 최근 window 개 결과 중 실패율이 failureRate 이상(최소 minCalls 건)이면 OPEN
+ * - OPEN: openMs 동안 호출 차단 → 이후 첫 호출 1건만 HALF_OPEN 프로브로 통과
+ * - HALF_OPEN: 프로브 성공 시 CLOSED(창 초기화), 실패 시 다시 OPEN
+ * 성공 호출 지연(ms)도 같은 크기의 창에 모아 헤지 지연(백분위) 계산에 쓴다.
+ */
+public class LlmCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openMs;
+
+    // 결과 창 (true = 실패)
+    private final boolean[] outcomes;
+    private int outcomeCount;
+    private int outcomePos;
+    private int failuresInWindow;
+
+    // 성공 지연 창
+    private final long[] latencies;
+    private int latencyCount;
+    private int latencyPos;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+    private long rejected;
+
+    public LlmCircuitBreaker(String name, int window, int minCalls, double failureRate, long openMs) {
+        this.name = name;
+        int w = Math.max(1, window);
+        this.outcomes = new boolean[w];
+        this.latencies = new long[w];
+        this.minCalls = Math.max(1, Math.min(minCalls, w));
+        this.failureRate = failureRate;
+        this.openMs = openMs;
+    }
+
+    /** 호출 가능 여부 (OPEN 이면 false, HALF_OPEN 은 프로브 1건만 true) */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt >= openMs) {
+                    state = State.HALF_OPEN;
+                    probeInFlight = true;
+                    return true;
+                }
+                rejected++;
+                return false;
+            default:
+                if (!probeInFlight) {
+                    probeInFlight = true;
+                    return true;
+                }
+                rejected++;
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess(long latencyMs) {
+        latencies[latencyPos] = latencyMs;
+        latencyPos = (latencyPos + 1) % latencies.length;
+        if (latencyCount < latencies.length) latencyCount++;
+
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probeInFlight = false;
+            resetWindow();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            trip();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED
+                && outcomeCount >= minCalls
+                && (double) failuresInWindow / outcomeCount >= failureRate) {
+            trip();
+        }
+    }
+
+    /** 결과 없이 허가만 반납 (호출을 실제로 보내지 못한 경우) */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) probeInFlight = false;
+    }
+
+    /** 성공 지연의 p 백분위 (표본이 minSamples 미만이면 -1) */
+    public synchronized long latencyPercentile(double p, int minSamples) {
+        if (latencyCount < Math.max(1, minSamples)) return -1;
+        long[] copy = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(copy);
+        int idx = (int) Math.ceil(Math.min(1.0, Math.max(0.0, p)) * latencyCount) - 1;
+        return copy[Math.max(0, idx)];
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("name", name);
+        m.put("state", state.name());
+        m.put("windowCalls", outcomeCount);
+        m.put("windowFailures", failuresInWindow);
+        m.put("rejected", rejected);
+        return m;
+    }
+
+    private void record(boolean failed) {
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomePos]) failuresInWindow--;
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomePos] = failed;
+        if (failed) failuresInWindow++;
+        outcomePos = (outcomePos + 1) % outcomes.length;
+    }
+
+    private void trip() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        probeInFlight = false;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        Arrays.fill(outcomes, false);
+        outcomeCount = 0;
+        outcomePos = 0;
+        failuresInWindow = 0;
+    }
+}
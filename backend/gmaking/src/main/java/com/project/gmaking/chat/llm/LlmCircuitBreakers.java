@@ -0,0 +1,34 @@
+package com.project.gmaking.chat.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** "provider:operation" 키별 서킷 브레이커 모음 (FallbackLlmClient 가 공유) */
+public class LlmCircuitBreakers {
+
+    private final int window;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openMs;
+    private final Map<String, LlmCircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public LlmCircuitBreakers(int window, int minCalls, double failureRate, long openMs) {
+        this.window = window;
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openMs = openMs;
+    }
+
+    public LlmCircuitBreaker get(String provider, String operation) {
+        return breakers.computeIfAbsent(provider + ":" + operation,
+                k -> new LlmCircuitBreaker(k, window, minCalls, failureRate, openMs));
+    }
+
+    public List<Map<String, Object>> stats() {
+        List<Map<String, Object>> out = new ArrayList<>();
+        breakers.values().forEach(b -> out.add(b.stats()));
+        return out;
+    }
+}
@@ -1,5 +1,7 @@
 package com.project.gmaking.chat.llm;
 
+import java.util.function.Consumer;
+
 public interface LlmClient {
     String chat(String systemPrompt, String userMessage) throws Exception;
 
@@ -7,6 +9,19 @@ public interface LlmClient {
                            java.util.List<com.project.gmaking.chat.vo.DialogueVO> historyChrono,
                            String latestUserMessage) throws Exception;
 
+    /**
+     * 스트리밍 대화: 토큰(조각)이 도착할 때마다 onToken 호출, 완료되면 전체 응답 반환.
+     * 스트리밍 미지원 구현은 기본값으로 전체 응답을 한 번에 흘려보낸다.
+     */
+    default String chatWithHistoryStream(String systemPrompt,
+                                         java.util.List<com.project.gmaking.chat.vo.DialogueVO> historyChrono,
+                                         String latestUserMessage,
+                                         Consumer<String> onToken) throws Exception {
+        String text = chatWithHistory(systemPrompt, historyChrono, latestUserMessage);
+        if (text != null && !text.isEmpty()) onToken.accept(text);
+        return text;
+    }
+
 
     // 이전 요약 + 최근 패치
     SummarizeResult summarizeAndExtract(String existingSummary,
@@ -1,8 +1,11 @@
 package com.project.gmaking.chat.llm;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class LlmConfig {
@@ -10,9 +13,66 @@ public class LlmConfig {
     @Bean("llmClient") // 기존 코드가 주입받는 이름 유지
     @Primary
     public LlmClient llmClient(GeminiClientSdkImpl geminiClient,
-                               ChatGptClientSdkImpl chatGptClient) {
-        // 1회 재시도 후 실패 시 ChatGPT로 전환
-        return new FallbackLlmClient(geminiClient, chatGptClient, 1);
+                               ChatGptClientSdkImpl chatGptClient,
+                               LlmCircuitBreakers llmCircuitBreakers,
+                               @Qualifier("llmHedgeExecutor") ThreadPoolTaskExecutor llmHedgeExecutor,
+                               @Value("${llm.hedge.enabled:false}") boolean hedgeEnabled,
+                               @Value("${llm.hedge.percentile:0.95}") double hedgePercentile,
+                               @Value("${llm.hedge.min-delay.ms:1500}") long hedgeMinDelayMs,
+                               @Value("${llm.hedge.default-delay.ms:4000}") long hedgeDefaultDelayMs) {
+        // 1회 재시도 후 실패 시 ChatGPT로 전환 (Gemini 서킷 OPEN 이면 재시도 없이 바로 전환)
+        return new FallbackLlmClient(geminiClient, chatGptClient, 1, "gemini", "openai",
+                llmCircuitBreakers,
+                new FallbackLlmClient.HedgeOptions(hedgeEnabled, hedgePercentile, hedgeMinDelayMs, hedgeDefaultDelayMs),
+                llmHedgeExecutor);
+    }
+
+    /** 프로바이더×오퍼레이션별 서킷 브레이커 (최근 window 건 실패율 기준) */
+    @Bean
+    public LlmCircuitBreakers llmCircuitBreakers(@Value("${llm.breaker.window:20}") int window,
+                                                 @Value("${llm.breaker.min-calls:10}") int minCalls,
+                                                 @Value("${llm.breaker.failure-rate:0.5}") double failureRate,
+                                                 @Value("${llm.breaker.open.ms:30000}") long openMs) {
+        return new LlmCircuitBreakers(window, minCalls, failureRate, openMs);
+    }
+
+    /** 헤지 요청용 풀 (1차/2차 호출을 동시에 띄움) */
+    @Bean(name = "llmHedgeExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor llmHedgeExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(8);
+        ex.setMaxPoolSize(64);
+        ex.setQueueCapacity(0);
+        ex.setThreadNamePrefix("llm-hedge-");
+        ex.initialize();
+        return ex;
     }
-}
 
+    /** 채팅 스트리밍(SSE) 생성 작업 전용 풀 - 요청 스레드는 바로 반환 */
+    @Bean(name = "chatStreamExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor chatStreamExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(8);
+        ex.setMaxPoolSize(32);
+        ex.setQueueCapacity(200);
+        ex.setThreadNamePrefix("chat-stream-");
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(30);
+        ex.initialize();
+        return ex;
+    }
+
+    /** 채팅 턴 후처리(요약/호칭 추출) 풀 - 포화 시 버림 (ChatPostTurnWorker 참고) */
+    @Bean(name = "chatPostTurnExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor chatPostTurnExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(4);
+        ex.setMaxPoolSize(8);
+        ex.setQueueCapacity(500);
+        ex.setThreadNamePrefix("chat-post-");
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(30);
+        ex.initialize();
+        return ex;
+    }
+}
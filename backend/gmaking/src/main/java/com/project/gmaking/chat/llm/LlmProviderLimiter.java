@@ -0,0 +1,71 @@
+package com.project.gmaking.chat.llm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 프로바이더별 동시 호출 제한 + 호출 지표.
+ * - maxConcurrent 개까지만 동시에 원격 호출, 나머지는 acquireTimeoutMs 동안 대기 후 실패(LlmException status=-1)
+ * - 지표: 호출/실패/거절 수, 진행 중 수, 평균·최대 지연(ms)
+ */
+public class LlmProviderLimiter {
+
+    private final String provider;
+    private final int maxConcurrent;
+    private final long acquireTimeoutMs;
+    private final Semaphore permits;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+
+    public LlmProviderLimiter(String provider, int maxConcurrent, long acquireTimeoutMs) {
+        this.provider = provider;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.acquireTimeoutMs = Math.max(0, acquireTimeoutMs);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+
+    public <T> T call(Callable<T> work) throws Exception {
+        if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            rejected.incrementAndGet();
+            throw new LlmException(provider + " concurrency limit reached (" + maxConcurrent + ")", -1, null);
+        }
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return work.call();
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            throw e;
+        } finally {
+            long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            calls.incrementAndGet();
+            totalLatencyMs.addAndGet(ms);
+            maxLatencyMs.accumulateAndGet(ms, Math::max);
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long c = calls.get();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("provider", provider);
+        m.put("maxConcurrent", maxConcurrent);
+        m.put("inFlight", inFlight.get());
+        m.put("calls", c);
+        m.put("failures", failures.get());
+        m.put("rejected", rejected.get());
+        m.put("avgLatencyMs", c == 0 ? 0 : totalLatencyMs.get() / c);
+        m.put("maxLatencyMs", maxLatencyMs.get());
+        return m;
+    }
+}
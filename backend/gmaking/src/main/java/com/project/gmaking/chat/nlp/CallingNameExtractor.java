@@ -2,13 +2,31 @@ package com.project.gmaking.chat.nlp;
 
 import com.project.gmaking.chat.llm.LlmClient;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class CallingNameExtractor {
     private final LlmClient llm;
 
+    /** 로컬 필터 통계: 후보(LLM 호출) / 비후보(LLM 생략) / LLM 이 실제 호칭을 돌려준 수 */
+    private final AtomicLong escalated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong extracted = new AtomicLong();
+
     public String extract(String userUtterance, String currentCalling) {
+        // 호칭 요청 패턴이 없으면 LLM 왕복 생략
+        if (!CallingNamePreFilter.isCandidate(userUtterance)) {
+            countAndLog(skipped);
+            return "";
+        }
+        countAndLog(escalated);
+
         String sys = """
             사용자가 자신을 뭐라고 불러달라고 했는지 추출하라.
             예) "저 쿠로라고 불러", "앞으로 나 '민지'라고 불러줘"
@@ -35,10 +53,30 @@ public class CallingNameExtractor {
             if (currentCalling != null && currentCalling.equals(v)) return "";
             // 안전 필터(공백/따옴표 제거)
             v = v.replaceAll("[\"'`]", "").trim();
+            if (!v.isEmpty()) extracted.incrementAndGet();
             return v;
         } catch (Exception e) {
             return "";
         }
     }
-}
 
+    /** escalated/skipped/extracted 카운터와 LLM 호출 비율 */
+    public Map<String, Object> stats() {
+        long e = escalated.get(), s = skipped.get();
+        long total = e + s;
+        return Map.of(
+                "escalated", e,
+                "skipped", s,
+                "extracted", extracted.get(),
+                "escalationRate", total == 0 ? 0.0 : (double) e / total
+        );
+    }
+
+    private void countAndLog(AtomicLong counter) {
+        counter.incrementAndGet();
+        long total = escalated.get() + skipped.get();
+        if (total % 1000 == 0) {
+            log.info("[CallingName] prefilter stats {}", stats());
+        }
+    }
+}
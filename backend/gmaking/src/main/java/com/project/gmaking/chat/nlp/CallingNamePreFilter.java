@@ -0,0 +1,73 @@
+package com.project.gmaking.chat.nlp;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 호칭 요청 후보 판별 (LLM 호출 전 로컬 1차 필터).
+ * - 강한 패턴: "~라고 불러", "~로 불러줘", "call me ~" 등 → 바로 후보
+ * - 약한 신호(불러/부르다/호칭/이름/따옴표 등) 가중치 합 - 부정 신호(노래 불러, 배불러 등) ≥ THRESHOLD 면 후보
+ * 후보가 아니면 CallingNameExtractor 는 LLM 을 부르지 않는다.
+ */
+final class CallingNamePreFilter {
+
+    static final double THRESHOLD = 1.0;
+
+    private CallingNamePreFilter() {}
+
+    /** 명시적 호칭 요청 */
+    private static final List<Pattern> STRONG = List.of(
+            // 쿠로라고 불러 / 민지라 불러줘 / 대장이라고 부를래?
+            Pattern.compile("(이?라고|이?라)\\s*(좀\\s*)?(불러|부르|불러줘|불러 ?줘|불러 ?주|부를)"),
+            // 쿠로로 불러줘 / 형으로 불러
+            Pattern.compile("\\S(으로|로)\\s*(좀\\s*)?(불러|부르|부를)"),
+            // 호칭은 ~ / 호칭 바꿔 / 닉네임은 ~
+            Pattern.compile("(호칭|닉네임|애칭|별명)\\s*(은|는|을|를|좀)?\\s*\\S"),
+            // 내 이름은 ~ / 제 이름은 ~
+            Pattern.compile("(내|제|나의|저의)\\s*이름\\s*(은|는|이)"),
+            Pattern.compile("\\bcall me\\b|\\bmy name is\\b")
+    );
+
+    /** 약한 신호와 가중치 */
+    private static final List<Weighted> WEAK = List.of(
+            new Weighted(Pattern.compile("불러|부르|부를"), 0.6),
+            new Weighted(Pattern.compile("이름|호칭|닉네임|별명|애칭"), 0.5),
+            new Weighted(Pattern.compile("라고|이라고"), 0.3),
+            new Weighted(Pattern.compile("[\"'“”‘’「」『』]"), 0.2),
+            new Weighted(Pattern.compile("앞으로|이제부터|지금부터"), 0.2),
+            new Weighted(Pattern.compile("\\bname\\b|\\bcall\\b"), 0.5)
+    );
+
+    /** "부르다"가 호칭이 아닌 뜻으로 쓰인 경우 */
+    private static final List<Weighted> NEGATIVE = List.of(
+            new Weighted(Pattern.compile("노래|가사|배\\s*불러|배부르|불러\\s*(와|오|올)|택시|사람을\\s*불러"), 0.8)
+    );
+
+    /** 후보 여부 */
+    static boolean isCandidate(String text) {
+        return score(text) >= THRESHOLD;
+    }
+
+    /** 0 이상 점수 (강한 패턴은 2.0 에서 부정 신호만큼 감점) */
+    static double score(String text) {
+        if (text == null || text.isBlank()) return 0.0;
+        String t = text.toLowerCase(Locale.ROOT);
+
+        double neg = 0.0;
+        for (Weighted w : NEGATIVE) {
+            if (w.pattern.matcher(t).find()) neg += w.weight;
+        }
+        for (Pattern p : STRONG) {
+            if (p.matcher(t).find()) return Math.max(0.0, 2.0 - neg);
+        }
+
+        double s = 0.0;
+        for (Weighted w : WEAK) {
+            if (w.pattern.matcher(t).find()) s += w.weight;
+        }
+        return Math.max(0.0, s - neg);
+    }
+
+    private record Weighted(Pattern pattern, double weight) {}
+}
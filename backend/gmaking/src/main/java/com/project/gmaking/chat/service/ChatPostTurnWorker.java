@@ -0,0 +1,157 @@
+package com.project.gmaking.chat.service;
+
+import com.project.gmaking.chat.dao.ConversationDAO;
+import com.project.gmaking.chat.nlp.CallingNameExtractor;
+import com.project.gmaking.common.TxCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 채팅 턴 이후 작업(롤링 요약/장기기억, 호칭 추출)을 응답 경로 밖에서 처리.
+ * - 대화방(convId)별 큐: 같은 대화방 작업은 제출 순서대로 하나씩 실행
+ * - 풀/큐는 chatPostTurnExecutor 로 제한, 포화 시 버림 (요약은 다음 턴에 임계치로 다시 잡힘)
+ * - 요약은 대화방당 대기 1건으로 합침, 호칭은 실행 시점의 DB 값과 비교해 바뀐 경우만 반영 (재실행해도 동일)
+ * 호출 트랜잭션이 있으면 커밋 이후에 제출해 방금 저장한 발화를 읽을 수 있게 한다.
+ */
+@Slf4j
+@Component
+public class ChatPostTurnWorker {
+
+    /** 대화방 하나에 쌓일 수 있는 대기 작업 수 */
+    private static final int MAX_PENDING_PER_CONV = 16;
+
+    private final TaskExecutor executor;
+    private final ConversationSummarizePipelineService pipeline;
+    private final CallingNameExtractor callingNameExtractor;
+    private final ConversationDAO conversationDAO;
+
+    /** convId → 대기 작업 (키가 있으면 해당 대화방 드레인 작업이 실행 중/예약됨) */
+    private final Map<Integer, Deque<Runnable>> queues = new HashMap<>();
+    /** 요약 작업이 대기 중인 대화방 */
+    private final Set<Integer> pendingSummary = ConcurrentHashMap.newKeySet();
+
+    public ChatPostTurnWorker(@Qualifier("chatPostTurnExecutor") TaskExecutor executor,
+                              ConversationSummarizePipelineService pipeline,
+                              CallingNameExtractor callingNameExtractor,
+                              ConversationDAO conversationDAO) {
+        this.executor = executor;
+        this.pipeline = pipeline;
+        this.callingNameExtractor = callingNameExtractor;
+        this.conversationDAO = conversationDAO;
+    }
+
+    /** 유저 발화 1건에 대한 후처리 예약 (호칭 → 요약 순) */
+    public void afterTurn(Integer convId, String userId, Integer characterId, String message) {
+        TxCallbacks.afterCommit(() -> {
+            submit(convId, () -> updateCallingName(convId, userId, message));
+            if (pendingSummary.add(convId)) {
+                boolean queued = submit(convId, () -> {
+                    pendingSummary.remove(convId);
+                    summarize(convId, userId, characterId);
+                });
+                // 버려진 경우 표시를 지워야 다음 턴에 다시 요약이 잡힘
+                if (!queued) pendingSummary.remove(convId);
+            }
+        });
+    }
+
+    // ---------- tasks ----------
+
+    private void updateCallingName(Integer convId, String userId, String message) {
+        String currentCalling = conversationDAO.selectCallingName(convId);
+        String newCalling = callingNameExtractor.extract(message, currentCalling);
+        if (newCalling != null
+                && !newCalling.isBlank()
+                && !"빈 응답입니다.".equalsIgnoreCase(newCalling)
+                && !"no response".equalsIgnoreCase(newCalling)
+                && !newCalling.equals(currentCalling)) {
+            conversationDAO.updateCallingName(convId, newCalling, userId);
+        }
+    }
+
+    private void summarize(Integer convId, String userId, Integer characterId) {
+        // 파이프라인은 REQUIRES_NEW + 마지막 요약 turnId 기준이라 중복 실행돼도 같은 구간을 두 번 요약하지 않음
+        pipeline.maybeSummarizeAndExtract(convId, null, userId, characterId, "threshold", false);
+    }
+
+    // ---------- per-conversation queue ----------
+
+    /** 대기열에 넣었으면 true, 포화로 버렸으면 false */
+    private boolean submit(Integer convId, Runnable task) {
+        Deque<Runnable> created = new ArrayDeque<>();
+        synchronized (queues) {
+            Deque<Runnable> q = queues.get(convId);
+            if (q != null) {
+                if (q.size() >= MAX_PENDING_PER_CONV) {
+                    log.warn("[PostTurn] conv queue full, drop task convId={}", convId);
+                    return false;
+                }
+                q.addLast(task);
+                return true;
+            }
+            created.addLast(task);
+            queues.put(convId, created);
+        }
+        try {
+            executor.execute(() -> drain(convId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("[PostTurn] executor saturated, drop task convId={}", convId);
+            boolean others;
+            synchronized (queues) {
+                // 내 작업만 뺀다. 그 사이 다른 스레드가 붙인 작업은 남겨 둠
+                created.remove(task);
+                others = !created.isEmpty();
+                if (!others) queues.remove(convId, created);
+            }
+            if (others) retryDrain(convId, created);
+            return false;
+        }
+    }
+
+    /** 거절된 드레인 대신 다른 스레드가 붙인 작업을 한 번 더 실행 시도, 또 거절되면 대기열째 버림 */
+    private void retryDrain(Integer convId, Deque<Runnable> q) {
+        try {
+            executor.execute(() -> drain(convId));
+        } catch (RejectedExecutionException e) {
+            int dropped;
+            synchronized (queues) {
+                dropped = queues.remove(convId, q) ? q.size() : 0;
+            }
+            if (dropped > 0) {
+                // 버린 작업 중 요약이 있을 수 있으니 표시를 지워 다음 턴에 다시 잡히게 함
+                pendingSummary.remove(convId);
+                log.warn("[PostTurn] executor saturated, drop {} queued task(s) convId={}", dropped, convId);
+            }
+        }
+    }
+
+    private void drain(Integer convId) {
+        while (true) {
+            Runnable task;
+            synchronized (queues) {
+                Deque<Runnable> q = queues.get(convId);
+                task = (q == null) ? null : q.pollFirst();
+                if (task == null) {
+                    queues.remove(convId);
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.warn("[PostTurn] task failed convId={}", convId, e);
+            }
+        }
+    }
+}
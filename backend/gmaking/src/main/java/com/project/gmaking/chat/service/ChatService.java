@@ -3,9 +3,12 @@ package com.project.gmaking.chat.service;
 import com.project.gmaking.chat.vo.DialogueVO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ChatService {
     String send(String userId, Integer CharacterId, String message);
+    // 토큰 단위 스트리밍 (onToken 으로 조각 전달, 완료 후 전체 응답 반환/저장)
+    String sendStream(String userId, Integer characterId, String message, Consumer<String> onToken);
     List<DialogueVO> history(String userId, Integer characterId, int limit);
 
 }
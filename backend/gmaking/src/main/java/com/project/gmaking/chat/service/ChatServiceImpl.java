@@ -7,7 +7,6 @@ import com.project.gmaking.chat.dao.ConversationDAO;
 import com.project.gmaking.chat.dao.LongMemoryDAO;
 import com.project.gmaking.chat.llm.LlmClient;
 import com.project.gmaking.chat.llm.GeminiClientSdkImpl;
-import com.project.gmaking.chat.nlp.CallingNameExtractor;
 import com.project.gmaking.chat.vo.ConversationVO;
 import com.project.gmaking.chat.vo.DialogueVO;
 import com.project.gmaking.chat.vo.LongMemoryVO;
@@ -15,12 +14,13 @@ import com.project.gmaking.chat.vo.PersonaVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -33,13 +33,82 @@ public class ChatServiceImpl implements ChatService {
     private final PersonaService personaService;
     private final ConversationDAO conversationDAO;
     private final LongMemoryDAO longMemoryDAO;
-    private final CallingNameExtractor callingNameExtractor;
     private final ConversationSummaryService conversationSummaryService;
-    private final ConversationSummarizePipelineService pipeline;
+    private final ChatPostTurnWorker postTurnWorker;
+    private final TransactionTemplate txTemplate;
 
+    /** 한 턴의 LLM 호출에 필요한 컨텍스트 (프롬프트/히스토리/메모리) */
+    private record TurnContext(Integer convId,
+                               String systemPrompt,
+                               String systemPromptWithMemory,
+                               String summaryText,
+                               List<GeminiClientSdkImpl.MemoryItem> memories,
+                               List<DialogueVO> recent) {}
+
+    /**
+     * 준비 단계(1~10)와 응답 저장만 각각 짧은 트랜잭션으로 처리하고,
+     * LLM 호출 중에는 DB 커넥션/트랜잭션을 잡지 않는다.
+     */
     @Override
-    @Transactional
     public String send(String userId, Integer characterId, String message) {
+        TurnContext ctx = txTemplate.execute(status -> prepareTurn(userId, characterId, message));
+
+        // 11) LLM 호출 (요약/장기기억 주입 가능 시 사용, 아니면 폴백)
+        String reply;
+        try {
+            if (llmClient instanceof GeminiClientSdkImpl gem) {
+                // Gemini는 네이티브 메서드 사용
+                reply = gem.chatWithMemory(
+                        ctx.systemPrompt(),
+                        ctx.summaryText(),
+                        ctx.memories(),
+                        ctx.recent(),
+                        message
+                );
+            } else {
+                // 폴백 모델은 systemPrompt에 메모리 프리픽스를 합쳐서 전달
+                reply = llmClient.chatWithHistory(ctx.systemPromptWithMemory(), ctx.recent(), message);
+            }
+            if (reply == null || reply.isBlank()) reply = "빈 응답입니다.";
+        } catch (Exception e) {
+            log.error("Gemini error userId={}, characterId={}", userId, characterId, e);
+            reply = "AI 응답 생성 중 오류가 발생했습니다.";
+        }
+
+        // 12) 캐릭터 발화 저장
+        String finalReply = reply;
+        txTemplate.executeWithoutResult(status -> saveReply(ctx.convId(), userId, finalReply));
+
+        // 13) 요약/장기기억 + 호칭 추출은 커밋 후 백그라운드 (대화방별 순서 보장)
+        postTurnWorker.afterTurn(ctx.convId(), userId, characterId, message);
+        return reply;
+    }
+
+    /**
+     * 스트리밍 전송: 준비 단계(1~10)만 짧은 트랜잭션으로 처리하고,
+     * 토큰 생성 중에는 DB 커넥션/트랜잭션을 잡지 않는다. 스트림 완료 후 최종 응답 저장.
+     */
+    @Override
+    public String sendStream(String userId, Integer characterId, String message, Consumer<String> onToken) {
+        TurnContext ctx = txTemplate.execute(status -> prepareTurn(userId, characterId, message));
+
+        String reply;
+        try {
+            reply = llmClient.chatWithHistoryStream(ctx.systemPromptWithMemory(), ctx.recent(), message, onToken);
+            if (reply == null || reply.isBlank()) reply = "빈 응답입니다.";
+        } catch (Exception e) {
+            log.error("LLM stream error userId={}, characterId={}", userId, characterId, e);
+            reply = "AI 응답 생성 중 오류가 발생했습니다.";
+        }
+
+        String finalReply = reply;
+        txTemplate.executeWithoutResult(status -> saveReply(ctx.convId(), userId, finalReply));
+        postTurnWorker.afterTurn(ctx.convId(), userId, characterId, message);
+        return reply;
+    }
+
+    /** 1~10단계: 대화방/페르소나 확보, 유저 발화 저장, 프롬프트·히스토리·메모리 구성 (LLM 호출 없음) */
+    private TurnContext prepareTurn(String userId, Integer characterId, String message) {
 
         // 1) 대화방 확보
         Integer convId = chatDAO.findLatestConversationId(userId, characterId);
@@ -66,16 +135,7 @@ public class ChatServiceImpl implements ChatService {
                 .updatedBy(userId)
                 .build());
 
-        // 5) 롤링 요약/장기기억 파이프라인 (비차단/베스트에포트)
-        try {
-            try {
-                pipeline.maybeSummarizeAndExtract(convId, null, userId, characterId, "threshold", false);
-            } catch (Exception e) {
-                log.warn("[SummaryPipeline] runtime force failed convId={} user={} charId={}", convId, userId, characterId, e);
-            }
-        } catch (Exception e) {
-            log.warn("[SummaryPipeline] runtime force failed convId={} user={} charId={}", convId, userId, characterId, e);
-        }
+        // 5) 롤링 요약/장기기억 파이프라인 → ChatPostTurnWorker (응답 저장 후 비동기)
 
         // 6) 첫만남 플래그 해제
         ConversationVO conv = conversationDAO.selectConversationByUserAndCharacter(userId, characterId);
@@ -83,16 +143,8 @@ public class ChatServiceImpl implements ChatService {
             conversationDAO.updateFirstMeetFlag(conv.getConversationId(), false, userId);
         }
 
-        // 7) 호칭 추출 + DB 반영 (같은 요청에 즉시 반영)
+        // 7) 현재 호칭 (호칭 추출은 ChatPostTurnWorker 에서 비동기로 → 다음 턴부터 반영)
         String currentCalling = conversationDAO.selectCallingName(convId);
-        String newCalling = callingNameExtractor.extract(message, currentCalling);
-        if (newCalling != null
-                && !newCalling.isBlank()
-                && !"빈 응답입니다.".equalsIgnoreCase(newCalling)
-                && !"no response".equalsIgnoreCase(newCalling)) {
-            conversationDAO.updateCallingName(convId, newCalling, userId);
-            currentCalling = newCalling;
-        }
 
         // 8) 시스템 프롬프트에 호칭 주입
         String systemPrompt = buildSystemPrompt(
@@ -123,29 +175,10 @@ public class ChatServiceImpl implements ChatService {
                 ? systemPrompt
                 : systemPrompt + "\n\n" + memoryPrefix;
 
-        // 11) LLM 호출 (요약/장기기억 주입 가능 시 사용, 아니면 폴백)
-        String reply;
-        try {
-            if (llmClient instanceof GeminiClientSdkImpl gem) {
-                // Gemini는 네이티브 메서드 사용
-                reply = gem.chatWithMemory(
-                        systemPrompt,
-                        summaryText,
-                        memories,
-                        recent,
-                        message
-                );
-            } else {
-                // 폴백 모델은 systemPrompt에 메모리 프리픽스를 합쳐서 전달
-                reply = llmClient.chatWithHistory(systemPromptWithMemory, recent, message);
-            }
-            if (reply == null || reply.isBlank()) reply = "빈 응답입니다.";
-        } catch (Exception e) {
-            log.error("Gemini error userId={}, characterId={}", userId, characterId, e);
-            reply = "AI 응답 생성 중 오류가 발생했습니다.";
-        }
+        return new TurnContext(convId, systemPrompt, systemPromptWithMemory, summaryText, memories, recent);
+    }
 
-        // 11) 캐릭터 발화 저장
+    private void saveReply(Integer convId, String userId, String reply) {
         chatDAO.insertDialogue(DialogueVO.builder()
                 .conversationId(convId)
                 .sender(DialogueSender.CHARACTER)
@@ -153,8 +186,6 @@ public class ChatServiceImpl implements ChatService {
                 .createdBy(userId)
                 .updatedBy(userId)
                 .build());
-
-        return reply;
     }
 
     private String buildSystemPrompt(String personaPrompt, String callingName) {
@@ -0,0 +1,26 @@
+package com.project.gmaking.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 커밋 후 실행 헬퍼.
+ * 트랜잭션 중이면 커밋 후에 실행(롤백되면 실행 안 함), 트랜잭션 밖이면 바로 실행.
+ */
+public final class TxCallbacks {
+
+    private TxCallbacks() {}
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -94,6 +94,9 @@ public class SecurityConfig {
                         .requestMatchers("/mypage/account").authenticated()
                         .requestMatchers("/api/shop/**").authenticated()
 
+                        // 관리자 API 는 /api/** 전체 허용보다 먼저 막아야 함 (메서드 보안 미사용)
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                         // /api/** 전체 허용 (이 한 줄로 다 처리됨)
                         .requestMatchers("/api/**").permitAll()
 
@@ -148,9 +151,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/notices/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/notices/**").hasRole("ADMIN")
 
-                        .requestMatchers("/api/admin/users/**").hasRole("ADMIN")
-                        .requestMatchers("/api/admin/inventory/**").hasRole("ADMIN")
-                        .requestMatchers("/api/admin/pvp-logs/**").hasRole("ADMIN")
+                        // /api/admin/** 는 위에서 ADMIN 으로 제한
 
                         // 2. 공지 목록 및 상세 조회 (인증 없이 모두 허용)
                         .requestMatchers(HttpMethod.GET, "/api/notices/**").permitAll()
@@ -2,22 +2,28 @@ package com.project.gmaking.findLog.service;
 
 import com.project.gmaking.character.dao.CharacterDAO;
 import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.pve.dao.BattleReplayDAO;
 import com.project.gmaking.pve.dao.PveBattleDAO;
 import com.project.gmaking.pve.dao.TurnLogDAO;
+import com.project.gmaking.pve.service.BattleReplayCodec;
 import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pve.vo.BattleReplayVO;
 import com.project.gmaking.pve.vo.TurnLogVO;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class FindLogServiceImpl implements FindLogService{
 
     private final TurnLogDAO turnLogDAO;
+    private final BattleReplayDAO battleReplayDAO;
     private final PveBattleDAO battleDAO;
     private final CharacterDAO characterDAO;
 
@@ -42,8 +48,17 @@ public class FindLogServiceImpl implements FindLogService{
         return result;
     }
 
+    /** 리플레이(1행)가 있으면 디코딩해서 반환, 없으면(PVP/이전 전투) 턴 로그 행 조회 */
     @Override
     public List<TurnLogVO> getTurnLogsByBattleId(Integer battleId) {
+        BattleReplayVO replay = battleReplayDAO.selectBattleReplay(battleId);
+        if (replay != null) {
+            try {
+                return BattleReplayCodec.decode(replay);
+            } catch (Exception e) {
+                log.error("[FindLog] 리플레이 디코딩 실패 battleId={}", battleId, e);
+            }
+        }
         return turnLogDAO.selectTurnLogsByBattleId(battleId);
     }
 }
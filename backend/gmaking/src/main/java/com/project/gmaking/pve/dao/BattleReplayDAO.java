@@ -0,0 +1,10 @@
+package com.project.gmaking.pve.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import com.project.gmaking.pve.vo.BattleReplayVO;
+
+@Mapper
+public interface BattleReplayDAO {
+    void insertBattleReplay(BattleReplayVO replay);
+    BattleReplayVO selectBattleReplay(Integer battleId);
+}
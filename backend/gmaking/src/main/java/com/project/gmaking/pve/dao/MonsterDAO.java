@@ -4,9 +4,13 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import com.project.gmaking.pve.vo.MonsterVO;
 
+import java.util.List;
+
 @Mapper
 public interface MonsterDAO {
     MonsterVO getRandomMonsterByType(String type);
     // 타입(NORMAL, BOSS)에 따라 랜덤 몬스터 1마리 조회
     MonsterVO selectRandomMonster(@Param("monsterType") String monsterType);
+    // 전체 몬스터 (MonsterCatalog 적재용)
+    List<MonsterVO> selectAllMonsters();
 }
@@ -7,5 +7,6 @@ import com.project.gmaking.pve.vo.TurnLogVO;
 @Mapper
 public interface TurnLogDAO {
     void insertTurnLog(TurnLogVO turnLog);
+    int insertTurnLogs(List<TurnLogVO> turnLogs);
     List<TurnLogVO> selectTurnLogsByBattleId(Integer battleId);
 }
@@ -0,0 +1,54 @@
+package com.project.gmaking.pve.scheduler;
+
+import com.project.gmaking.pve.service.BattleNoteBank;
+import com.project.gmaking.pve.service.OpenAIService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * note 뱅크 백그라운드 보충.
+ * 템플릿이 부족한 PVE 구간을 실행마다 몇 개씩 골라 GPT 로 템플릿을 만들어 넣는다.
+ * OPENAI_API_KEY 가 없거나 GPT 장애 중이면 아무것도 하지 않음 (뱅크는 기존 문구로 계속 동작).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BattleNoteBankRefresher {
+
+    private final BattleNoteBank noteBank;
+    private final OpenAIService openAIService;
+
+    /** 구간당 목표 템플릿 수 */
+    @Value("${battle.note-bank.refresh.target-per-key:10}")
+    private int targetPerKey;
+
+    /** 1회 실행에서 보충할 구간 수 */
+    @Value("${battle.note-bank.refresh.keys-per-run:3}")
+    private int keysPerRun;
+
+    @Scheduled(initialDelayString = "${battle.note-bank.refresh.initial-delay-ms:60000}",
+            fixedDelayString = "${battle.note-bank.refresh.interval-ms:600000}")
+    public void refresh() {
+        if (!noteBank.isEnabled() || System.getenv("OPENAI_API_KEY") == null) return;
+
+        List<BattleNoteBank.PveSlot> slots = noteBank.pveSlotsBelow(targetPerKey);
+        if (slots.isEmpty()) return;
+
+        int added = 0;
+        for (BattleNoteBank.PveSlot slot : slots.subList(0, Math.min(keysPerRun, slots.size()))) {
+            try {
+                List<String> templates = openAIService.requestTemplateNotes(slot, 5).get(90, TimeUnit.SECONDS);
+                added += noteBank.addPveTemplates(slot, templates);
+            } catch (Exception e) {
+                log.warn("[NoteBank] refresh failed key={} ({})", slot.key(), e.toString());
+            }
+        }
+        log.info("[NoteBank] refreshed {} templates, under-filled keys={}", added, slots.size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.gmaking.pve.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * 가중치 랜덤 선택용 alias 테이블 (Vose 방식).
+ * 생성 O(n), 선택 O(1) (난수 2개). 생성 후 불변이라 여러 스레드가 공유해도 된다.
+ */
+public final class AliasTable<T> {
+
+    private final List<T> items;
+    private final double[] prob;
+    private final int[] alias;
+
+    /** weights 는 items 와 같은 길이, 음수 불가, 합은 0 보다 커야 함 */
+    public AliasTable(List<T> items, double[] weights) {
+        int n = items.size();
+        if (n == 0 || weights.length != n) throw new IllegalArgumentException("items/weights 크기가 맞지 않습니다.");
+        double sum = 0;
+        for (double w : weights) {
+            if (w < 0 || Double.isNaN(w)) throw new IllegalArgumentException("가중치는 0 이상이어야 합니다.");
+            sum += w;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("가중치 합이 0 입니다.");
+
+        this.items = List.copyOf(items);
+        this.prob = new double[n];
+        this.alias = new int[n];
+
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int s = small.pop();
+            int l = large.pop();
+            prob[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] = scaled[l] + scaled[s] - 1.0;
+            (scaled[l] < 1.0 ? small : large).push(l);
+        }
+        // 남은 칸은 부동소수 오차만 남은 것이므로 확률 1
+        while (!large.isEmpty()) prob[large.pop()] = 1.0;
+        while (!small.isEmpty()) prob[small.pop()] = 1.0;
+    }
+
+    public T next(RandomGenerator rnd) {
+        int i = rnd.nextInt(prob.length);
+        return rnd.nextDouble() < prob[i] ? items.get(i) : items.get(alias[i]);
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
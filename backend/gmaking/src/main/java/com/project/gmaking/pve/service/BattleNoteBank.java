@@ -0,0 +1,290 @@
+package com.project.gmaking.pve.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 전투 note 템플릿 뱅크.
+ * - 키(PVE): 스타일|크리티컬(Y/N)|종료(Y/N)|데미지 구간(LOW/MID/HIGH), 없으면 구간 없는 키로 조회
+ * - 키(PVP): 내 커맨드|상대 커맨드|결과(PLAYER_ADV/ENEMY_ADV/TRADE/NONE/OVER_WIN/OVER_LOSE), 없으면 ANY|결과
+ * - 템플릿의 {actor}/{target} ({player}/{enemy}/{playerCommand}/{enemyCommand}) 를 런타임에 채움
+ * 초기값은 classpath:notebank/battle-notes.json (오프라인 생성본), 이후 LLM 응답을 템플릿화해 모으고
+ * BattleNoteBankRefresher 가 부족한 구간을 백그라운드로 채운다.
+ * LLM 은 llmFraction 비율의 턴에만 호출 (뱅크에 해당 구간이 없으면 항상 호출).
+ */
+@Slf4j
+@Component
+public class BattleNoteBank {
+
+    public static final List<String> STYLES = List.of("COMIC", "FANTASY", "WUXIA");
+    public static final List<String> DAMAGE_BUCKETS = List.of("LOW", "MID", "HIGH");
+
+    private static final String SEED = "notebank/battle-notes.json";
+    private static final Pattern HAS_DIGIT = Pattern.compile("\\d");
+
+    @Value("${battle.note-bank.enabled:true}")
+    private boolean enabled;
+
+    /** LLM 으로 새로 생성할 턴 비율 (0~1) */
+    @Value("${battle.note-bank.llm-fraction:0.2}")
+    private double llmFraction;
+
+    /** 구간당 최대 템플릿 수 (넘치면 임의 교체) */
+    @Value("${battle.note-bank.max-per-key:40}")
+    private int maxPerKey;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Bucket> pve = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> pvp = new ConcurrentHashMap<>();
+
+    private final AtomicLong bankHits = new AtomicLong();
+    private final AtomicLong llmRolls = new AtomicLong();
+    private final AtomicLong harvested = new AtomicLong();
+
+    @PostConstruct
+    void loadSeed() {
+        try (InputStream in = new ClassPathResource(SEED).getInputStream()) {
+            JsonNode root = mapper.readTree(in);
+            int n = load(root.path("pve"), pve) + load(root.path("pvp"), pvp);
+            log.info("[NoteBank] seed loaded: templates={}, pveKeys={}, pvpKeys={}", n, pve.size(), pvp.size());
+        } catch (Exception e) {
+            log.warn("[NoteBank] seed load failed ({}), bank starts empty", e.toString());
+        }
+    }
+
+    private int load(JsonNode section, Map<String, Bucket> target) {
+        int n = 0;
+        for (var it = section.fields(); it.hasNext(); ) {
+            var e = it.next();
+            for (JsonNode t : e.getValue()) {
+                bucket(target, e.getKey()).add(t.asText(), maxPerKey);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    // ---------- keys ----------
+
+    public static String damageBucket(Object damage) {
+        int d = (damage instanceof Number num) ? num.intValue() : 0;
+        if (d < 15) return "LOW";
+        if (d < 40) return "MID";
+        return "HIGH";
+    }
+
+    public static String pveKey(String style, boolean critical, boolean over) {
+        return normStyle(style) + "|" + yn(critical) + "|" + yn(over);
+    }
+
+    public static String pveKey(String style, boolean critical, boolean over, String damageBucket) {
+        return pveKey(style, critical, over) + "|" + damageBucket;
+    }
+
+    public static String pvpOutcome(Map<String, Object> turnData) {
+        int playerHp = intOf(turnData.get("playerHp"));
+        int enemyHp = intOf(turnData.get("enemyHp"));
+        int playerDamage = intOf(turnData.get("playerDamage"));
+        int enemyDamage = intOf(turnData.get("enemyDamage"));
+        if (enemyHp <= 0) return "OVER_WIN";
+        if (playerHp <= 0) return "OVER_LOSE";
+        if (playerDamage > 0 && enemyDamage > 0) return "TRADE";
+        if (enemyDamage > 0) return "PLAYER_ADV";
+        if (playerDamage > 0) return "ENEMY_ADV";
+        return "NONE";
+    }
+
+    // ---------- lookup ----------
+
+    /** 이번 턴을 LLM 으로 새로 만들지 (뱅크에 해당 구간이 없으면 true) */
+    public boolean shouldUseLlm(String style, Map<String, Object> turnData, boolean over) {
+        if (!enabled || findPve(style, turnData, over) == null) return true;
+        boolean llm = ThreadLocalRandom.current().nextDouble() < llmFraction;
+        (llm ? llmRolls : bankHits).incrementAndGet();
+        return llm;
+    }
+
+    public boolean shouldUseLlmPvp(Map<String, Object> turnData) {
+        if (!enabled || findPvp(turnData) == null) return true;
+        boolean llm = ThreadLocalRandom.current().nextDouble() < llmFraction;
+        (llm ? llmRolls : bankHits).incrementAndGet();
+        return llm;
+    }
+
+    /** PVE 템플릿을 채운 note (구간이 비었으면 empty) */
+    public Optional<String> pveNote(String style, Map<String, Object> turnData, boolean over) {
+        Bucket b = findPve(style, turnData, over);
+        if (b == null) return Optional.empty();
+        String t = b.sample();
+        if (t == null) return Optional.empty();
+        return Optional.of(t
+                .replace("{actor}", String.valueOf(turnData.get("actor")))
+                .replace("{target}", String.valueOf(turnData.get("target"))));
+    }
+
+    public Optional<String> pvpNote(Map<String, Object> turnData) {
+        Bucket b = findPvp(turnData);
+        if (b == null) return Optional.empty();
+        String t = b.sample();
+        if (t == null) return Optional.empty();
+        return Optional.of(t
+                .replace("{player}", String.valueOf(turnData.get("player")))
+                .replace("{enemy}", String.valueOf(turnData.get("enemy")))
+                .replace("{playerCommand}", String.valueOf(turnData.get("playerCommand")))
+                .replace("{enemyCommand}", String.valueOf(turnData.get("enemyCommand"))));
+    }
+
+    private Bucket findPve(String style, Map<String, Object> turnData, boolean over) {
+        boolean critical = Boolean.TRUE.equals(turnData.get("critical"));
+        Bucket b = nonEmpty(pve.get(pveKey(style, critical, over, damageBucket(turnData.get("damage")))));
+        return b != null ? b : nonEmpty(pve.get(pveKey(style, critical, over)));
+    }
+
+    private Bucket findPvp(Map<String, Object> turnData) {
+        String outcome = pvpOutcome(turnData);
+        Bucket b = nonEmpty(pvp.get(turnData.get("playerCommand") + "|" + turnData.get("enemyCommand") + "|" + outcome));
+        return b != null ? b : nonEmpty(pvp.get("ANY|" + outcome));
+    }
+
+    // ---------- harvest / refresh ----------
+
+    /** LLM 이 만든 PVE note 를 이름 → 자리표시자로 바꿔 뱅크에 추가 (수치가 섞였거나 이름이 없으면 버림) */
+    public void harvestPve(String style, Map<String, Object> turnData, boolean over, String note) {
+        if (!enabled || note == null || note.isBlank() || note.startsWith("[")) return;
+        String actor = String.valueOf(turnData.get("actor"));
+        String target = String.valueOf(turnData.get("target"));
+        if (actor.isBlank() || !note.contains(actor)) return;
+
+        String t = note.replace(actor, "{actor}").replace(target, "{target}");
+        if (HAS_DIGIT.matcher(t).find()) return;
+
+        boolean critical = Boolean.TRUE.equals(turnData.get("critical"));
+        bucket(pve, pveKey(style, critical, over, damageBucket(turnData.get("damage")))).add(t, maxPerKey);
+        harvested.incrementAndGet();
+    }
+
+    public void harvestPvp(Map<String, Object> turnData, String note) {
+        if (!enabled || note == null || note.isBlank() || note.startsWith("[")) return;
+        String player = String.valueOf(turnData.get("player"));
+        String enemy = String.valueOf(turnData.get("enemy"));
+        if (player.isBlank() || !note.contains(player)) return;
+
+        String t = note.replace(player, "{player}").replace(enemy, "{enemy}");
+        if (HAS_DIGIT.matcher(t).find()) return;
+
+        String key = turnData.get("playerCommand") + "|" + turnData.get("enemyCommand") + "|" + pvpOutcome(turnData);
+        bucket(pvp, key).add(t, maxPerKey);
+        harvested.incrementAndGet();
+    }
+
+    /** PVE 세부 구간 (리프레셔 단위) */
+    public record PveSlot(String style, boolean critical, boolean over, String damageBucket) {
+        public String key() {
+            return pveKey(style, critical, over, damageBucket);
+        }
+    }
+
+    /** 리프레셔가 생성한 템플릿 추가 ({actor} 가 들어 있고 수치가 없는 것만) */
+    public int addPveTemplates(PveSlot slot, List<String> templates) {
+        int n = 0;
+        for (String t : templates) {
+            if (t == null || !t.contains("{actor}") || HAS_DIGIT.matcher(t).find()) continue;
+            bucket(pve, slot.key()).add(t.trim(), maxPerKey);
+            n++;
+        }
+        return n;
+    }
+
+    /** PVE 세부 구간 중 템플릿이 want 개 미만인 구간 */
+    public List<PveSlot> pveSlotsBelow(int want) {
+        List<PveSlot> out = new ArrayList<>();
+        for (String style : STYLES) {
+            for (boolean critical : new boolean[]{false, true}) {
+                for (boolean over : new boolean[]{false, true}) {
+                    for (String dmg : DAMAGE_BUCKETS) {
+                        PveSlot slot = new PveSlot(style, critical, over, dmg);
+                        Bucket b = pve.get(slot.key());
+                        if (b == null || b.size() < want) out.add(slot);
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("pveKeys", pve.size());
+        m.put("pvpKeys", pvp.size());
+        m.put("bankHits", bankHits.get());
+        m.put("llmRolls", llmRolls.get());
+        m.put("harvested", harvested.get());
+        return m;
+    }
+
+    // ---------- internals ----------
+
+    private static Bucket bucket(Map<String, Bucket> map, String key) {
+        return map.computeIfAbsent(key, k -> new Bucket());
+    }
+
+    private static Bucket nonEmpty(Bucket b) {
+        return (b == null || b.size() == 0) ? null : b;
+    }
+
+    private static String normStyle(String style) {
+        return (style != null && STYLES.contains(style)) ? style : "COMIC";
+    }
+
+    private static String yn(boolean b) {
+        return b ? "Y" : "N";
+    }
+
+    private static int intOf(Object o) {
+        if (o instanceof Number n) return n.intValue();
+        try {
+            return o == null ? 0 : Integer.parseInt(o.toString());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** 한 구간의 템플릿 목록 (중복 제외, 가득 차면 임의 위치 교체) */
+    private static final class Bucket {
+        private final List<String> items = new ArrayList<>();
+
+        synchronized void add(String t, int max) {
+            if (t.isBlank() || items.contains(t)) return;
+            if (items.size() < Math.max(1, max)) items.add(t);
+            else items.set(ThreadLocalRandom.current().nextInt(items.size()), t);
+        }
+
+        synchronized String sample() {
+            return items.isEmpty() ? null : items.get(ThreadLocalRandom.current().nextInt(items.size()));
+        }
+
+        synchronized int size() {
+            return items.size();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.project.gmaking.pve.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.gmaking.pve.vo.BattleReplayVO;
+import com.project.gmaking.pve.vo.TurnLogVO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PVE 전투 리플레이 인코딩/디코딩.
+ * 전투 1건 = 시드 + 스탯 스냅샷(JSON) + 턴 튜플(바이트) + note 묶음(gzip) 한 행.
+ * - 턴 튜플: [플래그 1byte (PveBattleSimulator.FLAG_*)][데미지 varint], HP 는 스냅샷에서 다시 계산
+ * - note: 턴 순서대로 UTF 문자열을 이어 붙여 gzip
+ * decode 는 기존 TB_TURN_LOG 의 actionDetail 문자열을 그대로 재구성한다 (로그 조회 화면 호환).
+ */
+public final class BattleReplayCodec {
+
+    private BattleReplayCodec() {}
+
+    public static final int FORMAT_VERSION = 1;
+
+    /** WebSocket 전투: 턴 줄만 저장 */
+    public static final int LAYOUT_WS = 1;
+    /** REST 전투: 조우 줄 + 턴 줄 + 결과 줄 */
+    public static final int LAYOUT_REST = 2;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // ---------- 텍스트 포맷 (서비스와 디코더가 같은 문자열을 쓰도록 한 곳에 둠) ----------
+
+    public static String formatWsTurn(PveBattleSimulator.Turn t, String noteText) {
+        return String.format(
+                "턴 %d: %s가 공격으로 %d 데미지를 입힘%s\n%s \n(플레이어HP:%d, 몬스터HP:%d)\n%s",
+                t.turn(),
+                t.actor(),
+                t.damage(),
+                t.critical() ? " 크리티컬 히트!" : "",
+                noteText,
+                t.playerHp(),
+                t.monsterHp(),
+                ""
+        );
+    }
+
+    public static String formatRestTurn(PveBattleSimulator.Turn t, String noteText) {
+        return String.format(
+                "턴 %s: %s가 공격으로 %s 데미지를 입힘 %s%n(플레이어HP:%s, 몬스터HP:%s)%n",
+                String.valueOf(t.turn()),
+                String.valueOf(t.actor()),
+                String.valueOf(t.damage()),
+                String.valueOf(noteText),
+                String.valueOf(t.playerHp()),
+                String.valueOf(t.monsterHp())
+        );
+    }
+
+    public static String formatRestEncounter(PveBattleSimulator.Combatant monster) {
+        return String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s, 크리티컬:%s)을 마주쳤다!",
+                monster.name(),
+                String.valueOf(monster.hp()),
+                String.valueOf(monster.attack()),
+                String.valueOf(monster.defense()),
+                String.valueOf(monster.speed()),
+                String.valueOf(monster.criticalRate()));
+    }
+
+    public static String formatRestResult(boolean isWin) {
+        return isWin ? "승리! 전투 종료!" : "패배... 다음에 다시 도전하세요!";
+    }
+
+    // ---------- encode ----------
+
+    /** turns 와 notes 는 같은 길이 (실제로 진행된 턴까지만) */
+    public static BattleReplayVO encode(Integer battleId, int layout, Long seed,
+                                        PveBattleSimulator.Combatant player, PveBattleSimulator.Combatant monster,
+                                        List<PveBattleSimulator.Turn> turns, List<String> notes) {
+        try {
+            ByteArrayOutputStream turnBytes = new ByteArrayOutputStream(turns.size() * 2);
+            for (PveBattleSimulator.Turn t : turns) {
+                int flags = (t.playerAttack() ? PveBattleSimulator.FLAG_PLAYER_ATTACK : 0)
+                        | (t.critical() ? PveBattleSimulator.FLAG_CRITICAL : 0);
+                turnBytes.write(flags);
+                writeVarInt(turnBytes, t.damage());
+            }
+
+            ByteArrayOutputStream noteBytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(noteBytes))) {
+                out.writeInt(notes.size());
+                for (String n : notes) out.writeUTF(n == null ? "" : n);
+            }
+
+            BattleReplayVO vo = new BattleReplayVO();
+            vo.setBattleId(battleId);
+            vo.setFormatVersion(FORMAT_VERSION);
+            vo.setLayout(layout);
+            vo.setSeed(seed);
+            vo.setStatsJson(MAPPER.writeValueAsString(Map.of("player", player, "monster", monster)));
+            vo.setTurnData(turnBytes.toByteArray());
+            vo.setNoteBlob(noteBytes.toByteArray());
+            return vo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------- decode ----------
+
+    /** 리플레이 → 기존 턴 로그 목록 (turnLogId 없음) */
+    public static List<TurnLogVO> decode(BattleReplayVO replay) {
+        if (replay.getFormatVersion() == null || replay.getFormatVersion() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("지원하지 않는 리플레이 버전: " + replay.getFormatVersion());
+        }
+        try {
+            JsonNode stats = MAPPER.readTree(replay.getStatsJson());
+            PveBattleSimulator.Combatant player = MAPPER.treeToValue(stats.get("player"), PveBattleSimulator.Combatant.class);
+            PveBattleSimulator.Combatant monster = MAPPER.treeToValue(stats.get("monster"), PveBattleSimulator.Combatant.class);
+            List<PveBattleSimulator.Turn> turns = decodeTurns(replay.getTurnData(), player, monster);
+            List<String> notes = decodeNotes(replay.getNoteBlob());
+
+            List<String> lines = new ArrayList<>(turns.size() + 2);
+            boolean rest = replay.getLayout() != null && replay.getLayout() == LAYOUT_REST;
+            if (rest) lines.add(formatRestEncounter(monster));
+            for (int i = 0; i < turns.size(); i++) {
+                String note = i < notes.size() ? notes.get(i) : "";
+                lines.add(rest ? formatRestTurn(turns.get(i), note) : formatWsTurn(turns.get(i), note));
+            }
+            if (rest && !turns.isEmpty()) lines.add(formatRestResult(turns.get(turns.size() - 1).monsterHp() <= 0));
+
+            List<TurnLogVO> out = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                out.add(new TurnLogVO(null, replay.getBattleId(), i + 1, lines.get(i), replay.getCreatedDate()));
+            }
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** 스탯 스냅샷에서 HP 를 다시 계산하며 턴 복원 */
+    static List<PveBattleSimulator.Turn> decodeTurns(byte[] data, PveBattleSimulator.Combatant player,
+                                                     PveBattleSimulator.Combatant monster) throws IOException {
+        if (data == null) return new ArrayList<>();
+        ByteArrayInputStream in = new ByteArrayInputStream(data);
+        int[] packed = new int[data.length / 2 + 1];
+        int n = 0;
+        int flags;
+        while ((flags = in.read()) != -1) {
+            packed[n++] = readVarInt(in) << 2 | flags;
+        }
+        return PveBattleSimulator.unpack(player, monster, packed, n);
+    }
+
+    static List<String> decodeNotes(byte[] blob) throws IOException {
+        List<String> notes = new ArrayList<>();
+        if (blob == null || blob.length == 0) return notes;
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(blob)))) {
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) notes.add(in.readUTF());
+        }
+        return notes;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int v) {
+        while ((v & ~0x7F) != 0) {
+            out.write((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    private static int readVarInt(ByteArrayInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b == -1) throw new IOException("리플레이 턴 데이터가 잘렸습니다");
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("잘못된 varint");
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.common.TxCallbacks;
+import com.project.gmaking.pve.dao.EncounterRateDAO;
+import com.project.gmaking.pve.dao.MonsterDAO;
+import com.project.gmaking.pve.vo.EncounterRateVO;
+import com.project.gmaking.pve.vo.MonsterVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 몬스터 조우용 메모리 카탈로그.
+ * 전체 몬스터 + 조우 확률(NORMAL/BOSS)을 한 번 읽어서
+ * 몬스터별 가중치 = 타입 확률 / 타입 내 몬스터 수 인 alias 테이블을 만들어 두고 O(1) 로 뽑는다.
+ * (기존: 조우마다 확률 조회 + ORDER BY RAND() 전체 정렬)
+ * - AdminService 의 몬스터 등록/수정/삭제 커밋 후 invalidate → 다음 조우에서 다시 적재
+ * - DB 를 직접 고친 경우를 위해 ttl 이 지나도 다시 적재
+ * 반환하는 MonsterVO 는 공유 객체이므로 읽기 전용으로 사용.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MonsterCatalog {
+
+    private final MonsterDAO monsterDAO;
+    private final EncounterRateDAO encounterRateDAO;
+
+    @Value("${pve.monster-catalog.ttl-ms:600000}")
+    private long ttlMs;
+
+    private record Snapshot(AliasTable<MonsterVO> table, long loadedAt) {}
+
+    private volatile Snapshot snapshot;
+    /** invalidate 마다 증가 (적재 도중 무효화되면 그 결과는 캐시하지 않음) */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** 조우 확률대로 타입을 고르고 그 타입 안에서 균등하게 몬스터 1마리 (몬스터가 없으면 null) */
+    public MonsterVO randomEncounter() {
+        Snapshot s = current();
+        return s.table() == null ? null : s.table().next(ThreadLocalRandom.current());
+    }
+
+    /** 등록/수정/삭제 후 호출. 트랜잭션 중이면 커밋 후에도 한 번 더 비워서 커밋 전 데이터가 남지 않게 함 */
+    public void invalidate() {
+        clear();
+        TxCallbacks.afterCommit(this::clear);
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && System.currentTimeMillis() - s.loadedAt() < ttlMs) return s;
+        synchronized (this) {
+            s = snapshot;
+            if (s != null && System.currentTimeMillis() - s.loadedAt() < ttlMs) return s;
+            long gen = generation.get();
+            s = load();
+            if (generation.get() == gen) snapshot = s;
+            return s;
+        }
+    }
+
+    private Snapshot load() {
+        List<EncounterRateVO> rates = encounterRateDAO.getEncounterRates();
+        double normalRate = rates.stream()
+                .filter(r -> r.getEncounterType().equalsIgnoreCase("NORMAL"))
+                .mapToDouble(EncounterRateVO::getEncounterRate)
+                .findFirst()
+                .orElse(98.0);
+        double bossRate = 100.0 - normalRate;
+
+        List<MonsterVO> monsters = monsterDAO.selectAllMonsters();
+        Map<String, Integer> countByType = new LinkedHashMap<>();
+        for (MonsterVO m : monsters) {
+            countByType.merge(typeOf(m), 1, Integer::sum);
+        }
+
+        List<MonsterVO> items = new ArrayList<>(monsters.size());
+        List<Double> weights = new ArrayList<>(monsters.size());
+        for (MonsterVO m : monsters) {
+            String type = typeOf(m);
+            double typeRate = "BOSS".equals(type) ? bossRate : "NORMAL".equals(type) ? normalRate : 0.0;
+            if (typeRate <= 0) continue;
+            items.add(m);
+            weights.add(typeRate / countByType.get(type));
+        }
+
+        AliasTable<MonsterVO> table = null;
+        if (!items.isEmpty()) {
+            table = new AliasTable<>(items, weights.stream().mapToDouble(Double::doubleValue).toArray());
+        }
+        log.info("[MonsterCatalog] loaded monsters={}, byType={}, normalRate={}", items.size(), countByType, normalRate);
+        return new Snapshot(table, System.currentTimeMillis());
+    }
+
+    private static String typeOf(MonsterVO m) {
+        return m.getMonsterType() == null ? "" : m.getMonsterType().toUpperCase();
+    }
+}
@@ -3,10 +3,24 @@ package com.project.gmaking.pve.service;
 import java.net.http.*;
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
 
@@ -18,6 +32,73 @@ public class OpenAIService {
     private static final String MODEL = "gpt-4o-mini";
     private static final ObjectMapper mapper = new ObjectMapper();
     private final HttpClient client = HttpClient.newHttpClient();
+    private final BattleNoteBank noteBank;
+
+    // note 요청 동시 실행 상한 (전투 1회의 턴 note 를 한꺼번에 보내도 이 수만큼만 동시에 나감)
+    @Value("${pve.note.concurrency:8}")
+    private int noteConcurrency;
+    // 실행 대기 상한 (넘치면 GPT 호출 없이 바로 뱅크/시간 초과 문구로 완료)
+    @Value("${pve.note.queue-capacity:64}")
+    private int noteQueueCapacity;
+    // PVE note 대기 상한 (제출 시점부터). 넘으면 요청을 취소하고 뱅크/기본 문구로 채움
+    @Value("${pve.note.timeout-sec:40}")
+    private long noteTimeoutSec;
+    private ThreadPoolExecutor noteExecutor;
+
+    /** PVP 해설에서 대기열 포화로 GPT 호출을 건너뛴 경우 (호출자의 시간 초과 문구와 동일) */
+    private static final String NOTE_REJECTED_JSON = "{\"note\":\"[GPT 호출 실패: 시간 초과]\"}";
+
+    @PostConstruct
+    void initNoteExecutor() {
+        AtomicInteger seq = new AtomicInteger();
+        int threads = Math.max(1, noteConcurrency);
+        noteExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, noteQueueCapacity)), r -> {
+            Thread t = new Thread(r, "gpt-note-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdownNoteExecutor() {
+        noteExecutor.shutdownNow();
+    }
+
+    /**
+     * note 작업을 noteExecutor 에 제출.
+     * - 대기열이 가득 차면 GPT 호출 없이 onRejected 값으로 바로 완료
+     * - 반환한 future 가 먼저 끝나면(호출자의 completeOnTimeout 등) 대기 중/실행 중인 작업을 취소(interrupt)해
+     *   포기한 호출이 스레드와 API 할당량을 계속 쓰지 않게 한다
+     */
+    private <T> CompletableFuture<T> submitNote(Supplier<T> call, Supplier<T> onRejected) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // 작업 스스로 완료한 경우엔 취소하지 않음 (콜백이 작업 스레드에서 돌 때 자기 자신을 interrupt 하지 않도록)
+        AtomicBoolean finished = new AtomicBoolean();
+        Future<?> task;
+        try {
+            task = noteExecutor.submit(() -> {
+                if (result.isDone()) return;
+                T value;
+                try {
+                    value = call.get();
+                } catch (Throwable e) {
+                    finished.set(true);
+                    result.completeExceptionally(e);
+                    return;
+                }
+                finished.set(true);
+                result.complete(value);
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("[GPT note] 대기열 초과로 건너뜀 (queue=" + noteExecutor.getQueue().size() + ")");
+            return CompletableFuture.completedFuture(onRejected.get());
+        }
+        result.whenComplete((v, ex) -> {
+            if (!finished.get()) task.cancel(true);
+        });
+        return result;
+    }
 
     // GPT 해설 스타일 정의
     private static final Map<String, String> STYLE_PROMPTS = Map.of(
@@ -83,9 +164,15 @@ public class OpenAIService {
 
     /**
      * PVE 비동기 note 생성 (damage, critical 반영)
+     * 뱅크에 해당 구간 템플릿이 있으면 llm-fraction 비율의 턴만 GPT 호출.
+     * 실패/대기열 초과/시간 초과(pve.note.timeout-sec) 시에도 뱅크 문구 → 턴 기본 문구로 대체
      */
     public CompletableFuture<String> requestGPTNote(Map<String, Object> turnData, String styleKey, boolean isBattleOver) {
-        return CompletableFuture.supplyAsync(() -> {
+        if (!noteBank.shouldUseLlm(styleKey, turnData, isBattleOver)) {
+            Optional<String> banked = noteBank.pveNote(styleKey, turnData, isBattleOver);
+            if (banked.isPresent()) return CompletableFuture.completedFuture(noteJson(banked.get()));
+        }
+        return submitNote(() -> {
             try {
                 String apiKey = System.getenv("OPENAI_API_KEY");
                 if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
@@ -118,7 +205,7 @@ public class OpenAIService {
 
                 if (res.statusCode() != 200) {
                     System.err.println("[GPT 호출 실패] HTTP 상태: " + res.statusCode());
-                    return "{\"note\":\"[GPT 호출 실패: HTTP 오류]\"}";
+                    return pveFallbackJson(styleKey, turnData, isBattleOver);
                 }
 
                 var node = mapper.readTree(res.body());
@@ -127,21 +214,173 @@ public class OpenAIService {
                 // **파싱 전 note 내용 확인**
                 System.out.println("[GPT 파싱 전 note] " + content);
 
+                noteBank.harvestPve(styleKey, turnData, isBattleOver, noteText(content));
                 return content;
 
             } catch (Exception e) {
                 System.err.println("[GPT 호출 실패] 이유: " + e.getMessage());
                 e.printStackTrace();
-                return "{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}";
+                return pveFallbackJson(styleKey, turnData, isBattleOver);
             }
-        });
+        }, () -> pveFallbackJson(styleKey, turnData, isBattleOver))
+                .completeOnTimeout(null, noteTimeoutSec, TimeUnit.SECONDS)
+                .thenApply(json -> json != null ? json : pveFallbackJson(styleKey, turnData, isBattleOver));
+    }
+
+    /** 뱅크 문구, 없으면 턴 기본 문구 ({"note":"..."}) */
+    private String pveFallbackJson(String styleKey, Map<String, Object> turnData, boolean isBattleOver) {
+        return noteJson(noteBank.pveNote(styleKey, turnData, isBattleOver)
+                .orElseGet(() -> fallbackNote(turnData, isBattleOver)));
+    }
+
+    /**
+     * PVE 전투 전체 턴 note (인덱스 = 턴 - 1, GPT 요청 1회).
+     * 뱅크로 채울 턴은 바로 완료하고, 나머지 턴(actor, target, damage, critical, isBattleOver)만 한 프롬프트로 보내 {"notes":[...]} 를 받는다.
+     * 배열이 짧거나 깨졌거나 실패/대기열 초과/시간 초과(pve.note.timeout-sec)면 그 턴은 뱅크 문구 → 턴 기본 문구로 채운다.
+     */
+    public List<CompletableFuture<String>> requestGPTBattleNotes(List<Map<String, Object>> turns, String styleKey) {
+        List<CompletableFuture<String>> out = new ArrayList<>(turns.size());
+        List<Integer> llmIdx = new ArrayList<>();
+        for (int i = 0; i < turns.size(); i++) {
+            Map<String, Object> t = turns.get(i);
+            boolean over = Boolean.TRUE.equals(t.get("isBattleOver"));
+            String banked = noteBank.shouldUseLlm(styleKey, t, over) ? null : noteBank.pveNote(styleKey, t, over).orElse(null);
+            if (banked == null) llmIdx.add(i);
+            out.add(banked != null ? CompletableFuture.completedFuture(banked) : null);
+        }
+        if (llmIdx.isEmpty()) return out;
+
+        List<Map<String, Object>> llmTurns = new ArrayList<>(llmIdx.size());
+        for (int i : llmIdx) llmTurns.add(turns.get(i));
+
+        // LLM 대상 턴의 note 목록 (llmIdx 순서, 실패/시간 초과면 빈 목록)
+        CompletableFuture<List<String>> batch = this.<List<String>>submitNote(() -> {
+            List<String> notes = List.of();
+            try {
+                String apiKey = System.getenv("OPENAI_API_KEY");
+                if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
+
+                Map<String, Object> body = Map.of(
+                        "model", MODEL,
+                        "messages", List.of(
+                                Map.of("role", "system", "content", "You are a combat narrator who bases your commentary on the exact turn results (damage, critical, actor/target) following the user's stylistic instructions."),
+                                Map.of("role", "user", "content", createPveBatchNotePrompt(styleKey, llmTurns))
+                        ),
+                        "temperature", 0.4,
+                        "response_format", Map.of("type", "json_object")
+                );
+
+                HttpRequest req = HttpRequest.newBuilder()
+                        .uri(URI.create(API_URL))
+                        .timeout(Duration.ofSeconds(40))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + apiKey)
+                        .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                        .build();
+
+                HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
+                if (res.statusCode() != 200) {
+                    System.err.println("[GPT 일괄 note 실패] HTTP 상태: " + res.statusCode());
+                } else {
+                    String content = mapper.readTree(res.body()).path("choices").get(0).path("message").path("content").asText();
+                    notes = parseBatchNotes(content);
+                }
+            } catch (Exception e) {
+                System.err.println("[GPT 일괄 note 실패] 이유: " + e.getMessage());
+            }
+
+            if (notes.size() != llmTurns.size()) {
+                System.err.println("[GPT 일괄 note] 개수 불일치 expected=" + llmTurns.size() + ", actual=" + notes.size());
+            }
+            return notes;
+        }, List::of).completeOnTimeout(List.of(), noteTimeoutSec, TimeUnit.SECONDS);
+
+        for (int k = 0; k < llmIdx.size(); k++) {
+            int pos = k;
+            Map<String, Object> t = turns.get(llmIdx.get(k));
+            boolean over = Boolean.TRUE.equals(t.get("isBattleOver"));
+            out.set(llmIdx.get(k), batch.thenApply(notes -> {
+                String n = pos < notes.size() ? notes.get(pos) : null;
+                if (n != null && !n.isBlank()) {
+                    noteBank.harvestPve(styleKey, t, over, n);
+                    return n;
+                }
+                return noteBank.pveNote(styleKey, t, over).orElseGet(() -> fallbackNote(t, over));
+            }));
+        }
+        return out;
+    }
+
+    /** 일괄 프롬프트: 스타일/규칙은 한 번만, 턴 정보는 한 줄씩 */
+    public String createPveBatchNotePrompt(String styleKey, List<Map<String, Object>> turns) {
+        String stylePromptHeader = STYLE_PROMPTS.getOrDefault(styleKey, STYLE_PROMPTS.get("COMIC"));
+        String additionalRules = ADDITIONAL_RULES.getOrDefault(styleKey, "");
+
+        StringBuilder turnLines = new StringBuilder();
+        for (int i = 0; i < turns.size(); i++) {
+            Map<String, Object> t = turns.get(i);
+            turnLines.append(String.format("%d) 공격자: %s / 방어자: %s / 데미지: %s / 크리티컬: %s / IS_OVER: %s%n",
+                    i + 1, t.get("actor"), t.get("target"), t.get("damage"), t.get("critical"),
+                    t.getOrDefault("isBattleOver", false)));
+        }
+
+        return String.format("""
+            %s
+            아래 <턴 목록>의 **각 턴마다 note 를 하나씩** 생성하세요. 아래 <규칙>을 **무조건 준수**하세요.
+
+            <필수 명령>
+            1. 절대 데미지 수치 언급 금지.
+            2. 반드시 JSON 형식으로 {"notes":["1턴 note","2턴 note", ...]}만 반환하고, 코드 블록이나 서문 사용 금지.
+            3. notes 배열 길이는 정확히 %d 개, 순서는 턴 순서와 같아야 합니다.
+            %s
+            5. IS_OVER 가 true 인 턴은 묘사를 마무리하고 **'승리!', '패배!', 또는 '전투 종료'**를 명확히 포함하세요. 나머지 턴은 '다음 턴이 기대된다'는 뉘앙스로 마무리하세요.
+
+            <턴 목록>
+            %s""",
+                stylePromptHeader.replace("한 턴 전투에 대한", "전투의 각 턴에 대한"),
+                turns.size(),
+                additionalRules,
+                turnLines
+        );
+    }
+
+    /** {"notes":[...]} / [...] / 원소가 {"note":"..."} 인 경우 모두 허용 */
+    private static List<String> parseBatchNotes(String content) {
+        if (content == null) return List.of();
+        String cleaned = content.replaceAll("(?s)^```(?:json)?\\s*(.*?)\\s*```$", "$1").trim();
+        try {
+            JsonNode root = mapper.readTree(cleaned);
+            JsonNode arr = root.isArray() ? root : root.path("notes");
+            if (!arr.isArray()) return List.of();
+            List<String> out = new ArrayList<>(arr.size());
+            for (JsonNode n : arr) {
+                out.add(n.isTextual() ? n.asText() : n.path("note").asText(""));
+            }
+            return out;
+        } catch (Exception e) {
+            System.err.println("[GPT 일괄 note] JSON 파싱 실패: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /** note 가 비었을 때 쓰는 턴별 기본 문구 */
+    private static String fallbackNote(Map<String, Object> turn, boolean over) {
+        boolean critical = Boolean.TRUE.equals(turn.get("critical"));
+        String base = String.format(critical ? "%s의 회심의 일격이 %s에게 꽂혔다!" : "%s의 공격이 %s에게 적중했다.",
+                turn.get("actor"), turn.get("target"));
+        return over ? base + " 전투 종료!" : base;
     }
 
     /**
      * 비동기 PVP 턴 결과 요약 생성 (커맨드, 피해 반영)
+     * PVE 와 같이 뱅크 우선, llm-fraction 비율의 턴만 GPT 호출
      */
     public CompletableFuture<String> requestGPTPvpNote(Map<String, Object> turnData) {
-        return CompletableFuture.supplyAsync(() -> {
+        if (!noteBank.shouldUseLlmPvp(turnData)) {
+            Optional<String> banked = noteBank.pvpNote(turnData);
+            if (banked.isPresent()) return CompletableFuture.completedFuture(noteJson(banked.get()));
+        }
+        return submitNote(() -> {
             try {
                 String apiKey = System.getenv("OPENAI_API_KEY");
                 if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
@@ -211,7 +450,8 @@ public class OpenAIService {
 
                 if (res.statusCode() != 200) {
                     System.err.println("[GPT 호출 실패] HTTP 상태: " + res.statusCode());
-                    return "{\"note\":\"[GPT 호출 실패: HTTP 오류]\"}";
+                    return noteBank.pvpNote(turnData).map(OpenAIService::noteJson)
+                            .orElse("{\"note\":\"[GPT 호출 실패: HTTP 오류]\"}");
                 }
 
                 var node = mapper.readTree(res.body());
@@ -220,13 +460,107 @@ public class OpenAIService {
                 // **파싱 전 note 내용 확인**
                 System.out.println("[GPT 파싱 전 note] " + content);
 
+                noteBank.harvestPvp(turnData, noteText(content));
                 return content;
 
             } catch (Exception e) {
                 System.err.println("[GPT 호출 실패] 이유: " + e.getMessage());
                 e.printStackTrace();
-                return "{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}";
+                return noteBank.pvpNote(turnData).map(OpenAIService::noteJson)
+                        .orElse("{\"note\":\"[GPT 호출 실패: " + e.getClass().getSimpleName() + "]\"}");
             }
-        });
+        }, () -> noteBank.pvpNote(turnData).map(OpenAIService::noteJson).orElse(NOTE_REJECTED_JSON));
+    }
+
+    /**
+     * 뱅크 보충용 PVE 템플릿 생성 (BattleNoteBankRefresher 에서 호출).
+     * 이름 대신 {actor}/{target} 자리표시자를 쓴 문구 count 개를 {"notes":[...]} 로 받는다. 실패 시 빈 목록.
+     */
+    public CompletableFuture<List<String>> requestTemplateNotes(BattleNoteBank.PveSlot slot, int count) {
+        return submitNote(() -> {
+            try {
+                String apiKey = System.getenv("OPENAI_API_KEY");
+                if (apiKey == null) throw new IllegalStateException("OPENAI_API_KEY 없음");
+
+                String stylePromptHeader = STYLE_PROMPTS.getOrDefault(slot.style(), STYLE_PROMPTS.get("COMIC"));
+                String strength = switch (slot.damageBucket()) {
+                    case "LOW" -> "가벼운 찰과상 수준";
+                    case "MID" -> "제법 아픈 일격";
+                    default -> "치명적인 강타";
+                };
+                String prompt = String.format("""
+                    %s
+                    서로 다른 note 를 %d 개 생성하세요. 특정 전투가 아니라 재사용할 **템플릿**입니다.
+
+                    <필수 명령>
+                    1. 공격자 이름은 반드시 {actor}, 방어자 이름은 {target} 으로 그대로 적으세요. 다른 이름 금지.
+                    2. 숫자(데미지, HP 등) 절대 사용 금지.
+                    3. 반드시 JSON 형식으로 {"notes":["...", ...]}만 반환하고, 코드 블록이나 서문 사용 금지.
+                    %s
+                    5. %s
+
+                    <상황>
+                    공격 강도: %s
+                    크리티컬: %b
+                    """,
+                        stylePromptHeader,
+                        count,
+                        ADDITIONAL_RULES.getOrDefault(slot.style(), ""),
+                        slot.over()
+                                ? "전투가 끝나는 턴이므로 '승리!', '패배!', 또는 '전투 종료'를 명확히 포함하세요."
+                                : "'다음 턴이 기대된다'는 뉘앙스로 마무리하세요.",
+                        strength,
+                        slot.critical()
+                );
+
+                Map<String, Object> body = Map.of(
+                        "model", MODEL,
+                        "messages", List.of(
+                                Map.of("role", "system", "content", "You write reusable combat narration templates with {actor}/{target} placeholders."),
+                                Map.of("role", "user", "content", prompt)
+                        ),
+                        "temperature", 0.9,
+                        "response_format", Map.of("type", "json_object")
+                );
+
+                HttpRequest req = HttpRequest.newBuilder()
+                        .uri(URI.create(API_URL))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + apiKey)
+                        .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                        .build();
+
+                HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString());
+                if (res.statusCode() != 200) {
+                    System.err.println("[GPT 템플릿 생성 실패] HTTP 상태: " + res.statusCode());
+                    return List.<String>of();
+                }
+                String content = mapper.readTree(res.body()).path("choices").get(0).path("message").path("content").asText();
+                return parseBatchNotes(content);
+            } catch (Exception e) {
+                System.err.println("[GPT 템플릿 생성 실패] 이유: " + e.getMessage());
+                return List.<String>of();
+            }
+        }, List::of);
+    }
+
+    /** 뱅크 문구를 기존 응답 형식({"note":"..."})으로 */
+    private static String noteJson(String note) {
+        try {
+            return mapper.writeValueAsString(Map.of("note", note));
+        } catch (Exception e) {
+            return "{\"note\":\"\"}";
+        }
+    }
+
+    /** {"note":"..."} 응답에서 본문만 (파싱 실패 시 null) */
+    private static String noteText(String content) {
+        try {
+            String cleaned = content.replaceAll("(?s)^```(?:json)?\\s*(.*?)\\s*```$", "$1").trim();
+            return mapper.readTree(cleaned).path("note").asText(null);
+        } catch (Exception e) {
+            return null;
+        }
     }
 }
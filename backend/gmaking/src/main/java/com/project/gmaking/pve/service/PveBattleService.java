@@ -1,6 +1,9 @@
 package com.project.gmaking.pve.service;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import com.project.gmaking.map.vo.MapVO;
 import com.project.gmaking.pve.vo.BattleLogVO;
 import com.project.gmaking.pve.vo.MonsterVO;
@@ -18,5 +21,11 @@ public interface PveBattleService {
     // 전투
     BattleLogVO startBattle(Integer characterId, MonsterVO monster, String userId);
 
-    void startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle);
+    /**
+     * WebSocket 전투. scheduler 로 턴 시각을 맞추고 각 단계(DB/전송)는 io 에서 실행, 바로 반환.
+     * 반환 future 는 전투 종료 시 완료되며, cancel 하면 다음 턴부터 중단.
+     */
+    CompletableFuture<Void> startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster,
+                                                 String userId, String noteStyle, ScheduledExecutorService scheduler,
+                                                 Executor io);
 }
@@ -3,18 +3,21 @@ package com.project.gmaking.pve.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.project.gmaking.character.dao.CharacterDAO;
-import com.project.gmaking.character.vo.CharacterStatVO;
 import com.project.gmaking.character.vo.CharacterVO;
 import com.project.gmaking.map.dao.MapDAO;
 import com.project.gmaking.map.vo.MapVO;
 import com.project.gmaking.pve.dao.*;
 import com.project.gmaking.pve.vo.*;
 import com.project.gmaking.quest.service.QuestService;
+import com.project.gmaking.ranking.dao.RankingStatDAO;
+import com.project.gmaking.ranking.service.RankingBoards;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
@@ -26,20 +29,39 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PveBattleServiceImpl implements PveBattleService {
 
-    private final EncounterRateDAO encounterRateDAO;
-    private final MonsterDAO monsterDAO;
+    private final MonsterCatalog monsterCatalog;
     private final PveBattleDAO battleDAO;
     private final CharacterDAO characterDAO;
     private final MapDAO mapDAO;
     private final OpenAIService openAIService;
     private final TurnLogDAO turnLogDAO;
+    private final TurnLogWriteBuffer turnLogBuffer;
+    private final BattleReplayDAO battleReplayDAO;
     private final QuestService questService;
+    private final RankingBoards rankingBoards;
+    private final RankingStatDAO rankingStatDAO;
+    private final TransactionTemplate txTemplate;
+
+    /** note 생성 방식: BATCH(전투당 요청 1회) | PER_TURN(턴당 요청 1회) */
+    @Value("${pve.note.mode:BATCH}")
+    private String noteMode;
+
+    /** true 면 PVE 턴 로그를 TB_TURN_LOG 행 대신 리플레이 1행(TB_BATTLE_REPLAY)으로 저장 */
+    @Value("${battle.replay.enabled:true}")
+    private boolean replayEnabled;
 
     /** 맵 목록 조회 */
     @Override
@@ -53,131 +75,41 @@ public class PveBattleServiceImpl implements PveBattleService {
         return mapDAO.selectMapById(mapId);
     }
 
-    /** 몬스터 조우 */
+    /** 몬스터 조우 (메모리 카탈로그에서 조우 확률대로 O(1) 선택) */
     @Override
     public MonsterVO encounterMonster(Integer mapId) {
-        List<EncounterRateVO> rates = encounterRateDAO.getEncounterRates();
-
-        double normalRate = rates.stream()
-                .filter(r -> r.getEncounterType().equalsIgnoreCase("NORMAL"))
-                .mapToDouble(EncounterRateVO::getEncounterRate)
-                .findFirst()
-                .orElse(98.0);
-
-        double bossRate = 100.0 - normalRate;
-        double random = Math.random() * 100;
-        String type = random < bossRate ? "BOSS" : "NORMAL";
-
-        return monsterDAO.getRandomMonsterByType(type);
+        return monsterCatalog.randomEncounter();
     }
 
     /** GPT 기반 전투 시뮬레이션 */
     @Override
     public BattleLogVO startBattle(Integer characterId, MonsterVO monster, String userId) {
         CharacterVO character = characterDAO.selectCharacterById(characterId);
-        CharacterStatVO stat = character.getCharacterStat();
-
-        int playerHp = stat.getCharacterHp();
-        int monsterHp = monster.getMonsterHp();
-        int playerAtk = stat.getCharacterAttack();
-        int playerDef = stat.getCharacterDefense();
-        int playerSpeed = stat.getCharacterSpeed();
-        int playerCrit = stat.getCriticalRate();
 
-        int monsterAtk = monster.getMonsterAttack();
-        int monsterDef = monster.getMonsterDefense();
-        int monsterSpeed = monster.getMonsterSpeed();
-        int monsterCrit = monster.getMonsterCriticalRate();
-
-        boolean playerFirst = playerSpeed >= monsterSpeed;
+        PveBattleSimulator.Combatant player = PveBattleSimulator.Combatant.of(character);
+        PveBattleSimulator.Combatant enemy = PveBattleSimulator.Combatant.of(monster);
 
         List<String> logs = new ArrayList<>();
 
         // 전투 시작 메시지
-        logs.add(String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s, 크리티컬:%s)을 마주쳤다!",
-                monster.getMonsterName(),
-                String.valueOf(monster.getMonsterHp()),
-                String.valueOf(monster.getMonsterAttack()),
-                String.valueOf(monster.getMonsterDefense()),
-                String.valueOf(monster.getMonsterSpeed()),
-                String.valueOf(monster.getMonsterCriticalRate())));
-
-        int turn = 1;
-        ObjectMapper mapper = new ObjectMapper();
-
-        while (playerHp > 0 && monsterHp > 0) {
-            boolean isPlayerAttack = (turn % 2 == 1) ? playerFirst : !playerFirst;
-            String actor, target;
-            int atk, def, critRate;
-
-            if (isPlayerAttack) {
-                actor = character.getCharacterName(); target = monster.getMonsterName();
-                atk = playerAtk; def = monsterDef; critRate = playerCrit;
-            } else {
-                actor = monster.getMonsterName(); target = character.getCharacterName();
-                atk = monsterAtk; def = playerDef; critRate = monsterCrit;
-            }
-
-            boolean critical = Math.random() * 100 < critRate;
-            int damage = Math.max(1, (critical ? atk * 2 : atk) - def);
-
-            if (isPlayerAttack) monsterHp -= damage;
-            else playerHp -= damage;
-
-            boolean isBattleOver = (playerHp <= 0 || monsterHp <= 0);
-            // GPT 호출
-            String noteJson = openAIService.requestGPTNote(Map.of(
-                            "actor", actor,
-                            "target", target,
-                            "damage", damage,
-                            "critical", critical
-                    ), "COMIC", isBattleOver //  기본 스타일 "COMIC"과 isBattleOver 전달
-            ).join();
-
-            // 즉시 로그 출력
-            System.out.println("[턴 " + turn + "] GPT note: " + noteJson);
-
-            // 코드블록 제거
-            noteJson = noteJson.replaceAll("(?s)^```.*?```$", "").trim();
-
-            // noteJson이 비어있으면 기본 메시지
-            if (noteJson.isEmpty()) noteJson = "{\"note\":\"[GPT 호출 실패]\"}";
-
-            // JSON 형식 강제화 (큰따옴표만 escape)
-            if (!noteJson.startsWith("{")) {
-                noteJson = "{\"note\":\"" + noteJson.replace("\"", "\\\"") + "\"}";
-            }
-
-            // 파싱
-            Map<String, Object> noteMap;
-            try {
-                noteMap = mapper.readValue(noteJson, new TypeReference<Map<String, Object>>() {});
-            } catch (Exception e) {
-                e.printStackTrace();
-                noteMap = Map.of("note", "[GPT 호출 실패]");
-            }
-
-
-            String noteText = noteMap.getOrDefault("note", "[GPT 호출 실패]").toString();
-
-            String line = String.format(
-                    "턴 %s: %s가 공격으로 %s 데미지를 입힘 %s%n(플레이어HP:%s, 몬스터HP:%s)%n",
-                    String.valueOf(turn),
-                    String.valueOf(actor),
-                    String.valueOf(damage),
-                    String.valueOf(noteText),
-                    String.valueOf(playerHp),
-                    String.valueOf(monsterHp)
-            );
-            logs.add(line);
-            turn++;
+        logs.add(BattleReplayCodec.formatRestEncounter(enemy));
+
+        // 1) 전투 전체 선계산 → 2) 턴 note 요청 (일괄 1회 또는 턴별 동시 요청)
+        PveBattleSimulator.Result sim = PveBattleSimulator.simulate(player, enemy);
+        List<CompletableFuture<String>> notes = requestNotes(sim, "COMIC", "[GPT 호출 실패]");
+
+        // 3) 턴 순서대로 조립
+        List<String> noteTexts = new ArrayList<>(sim.turnCount());
+        for (PveBattleSimulator.Turn t : sim.turns()) {
+            String noteText = notes.get(t.turn() - 1).join();
+            noteTexts.add(noteText);
+            logs.add(BattleReplayCodec.formatRestTurn(t, noteText));
         }
 
-        boolean isWin = monsterHp <= 0;
+        boolean isWin = sim.playerWin();
 
         // 전투 종료 메시지
-        String resultMsg = isWin ? "승리! 전투 종료!" : "패배... 다음에 다시 도전하세요!";
-        logs.add(resultMsg);
+        logs.add(BattleReplayCodec.formatRestResult(isWin));
 
         // DB 기록
         BattleLogVO battleLog = new BattleLogVO();
@@ -185,190 +117,326 @@ public class PveBattleServiceImpl implements PveBattleService {
         battleLog.setOpponentId(monster.getMonsterId());
         battleLog.setBattleType("PVE");
         battleLog.setIsWin(isWin ? "Y" : "N");
-        battleLog.setTurnCount((long) (turn - 1));
+        battleLog.setTurnCount((long) sim.turnCount());
         battleLog.setCreatedBy(userId);
         battleDAO.insertBattleLog(battleLog);
         Integer battleId = battleLog.getBattleId();
 
-        // 턴 로그 DB 기록
-        int turnNum = 1;
-        for (String log : logs) {
-            TurnLogVO turnLog = new TurnLogVO();
-            turnLog.setBattleId(battleId);
-            turnLog.setTurnNumber(turnNum++);
-            turnLog.setActionDetail(log);
-            turnLogDAO.insertTurnLog(turnLog);
+        if (replayEnabled) {
+            // 리플레이 1행 (조회 시 BattleReplayCodec.decode 로 같은 로그 재구성)
+            battleReplayDAO.insertBattleReplay(BattleReplayCodec.encode(battleId, BattleReplayCodec.LAYOUT_REST,
+                    sim.seed(), player, enemy, sim.turns(), noteTexts));
+        } else {
+            // 턴 로그 DB 기록 (multi-row INSERT 1회)
+            List<TurnLogVO> turnLogs = new ArrayList<>(logs.size());
+            int turnNum = 1;
+            for (String log : logs) {
+                TurnLogVO turnLog = new TurnLogVO();
+                turnLog.setBattleId(battleId);
+                turnLog.setTurnNumber(turnNum++);
+                turnLog.setActionDetail(log);
+                turnLogs.add(turnLog);
+            }
+            turnLogDAO.insertTurnLogs(turnLogs);
         }
 
         // 승리 시 스테이지 클리어 증가
-        if (isWin) characterDAO.incrementStageClear(character.getCharacterId());
+        if (isWin) recordStageClear(character.getCharacterId());
 
         battleLog.setTurnLogs(logs);
         return battleLog;
     }
 
     @Override
-    public void startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster, String userId, String noteStyle) {
-        try {
-            CharacterVO character = characterDAO.selectCharacterById(characterId);
-            CharacterStatVO stat = character.getCharacterStat();
-
-            int playerHp = stat.getCharacterHp() != null ? stat.getCharacterHp() : 1;
-            int monsterHp = monster.getMonsterHp() != null ? monster.getMonsterHp() : 1;
-            int playerAtk = stat.getCharacterAttack() != null ? stat.getCharacterAttack() : 1;
-            int playerDef = stat.getCharacterDefense() != null ? stat.getCharacterDefense() : 1;
-            int playerSpeed = stat.getCharacterSpeed() != null ? stat.getCharacterSpeed() : 1;
-            int playerCrit = stat.getCriticalRate() != null ? stat.getCriticalRate() : 1;
-
-            int monsterAtk = monster.getMonsterAttack() != null ? monster.getMonsterAttack() : 0;
-            int monsterDef = monster.getMonsterDefense() != null ? monster.getMonsterDefense() : 0;
-            int monsterSpeed = monster.getMonsterSpeed() != null ? monster.getMonsterSpeed() : 0;
-            int monsterCrit = monster.getMonsterCriticalRate() != null ? monster.getMonsterCriticalRate() : 0;
-
-            boolean playerFirst = playerSpeed >= monsterSpeed;
-            ObjectMapper mapper = new ObjectMapper();
-
-            // 1. 몬스터 정보를 별도의 JSON 객체로 클라이언트에게 전송
-            //    프론트에서 이 정보를 받아 몬스터 스탯/이미지 영역을 업데이트합니다.
-            Map<String, Object> encounterData = Map.ofEntries(
-                    Map.entry("type", "encounter"),
-                    Map.entry("monsterId", monster.getMonsterId()),
-                    Map.entry("imageOriginalName", monster.getImageOriginalName()),
-                    Map.entry("imageUrl", monster.getImageUrl()),
-                    Map.entry("monsterName", monster.getMonsterName()),
-                    Map.entry("imageId", monster.getImageId()),
-                    Map.entry("monsterHp", monster.getMonsterHp()),
-                    Map.entry("monsterAttack", monster.getMonsterAttack()),
-                    Map.entry("monsterDefense", monster.getMonsterDefense()),
-                    Map.entry("monsterSpeed", monster.getMonsterSpeed()),
-                    Map.entry("monsterCriticalRate", monster.getMonsterCriticalRate())
-            );
-            session.sendMessage(new TextMessage(mapper.writeValueAsString(encounterData)));
-            log.info("클라이언트에게 몬스터 조우 정보 전송: {}", monster.getMonsterName());
-
-            // 전투 기록 DB
-            BattleLogVO battleLog = new BattleLogVO();
-            battleLog.setCharacterId(characterId);
-            battleLog.setOpponentId(monster.getMonsterId());
-            battleLog.setBattleType("PVE");
-            battleLog.setCreatedBy(userId);
-            battleLog.setIsWin("N");
-            battleLog.setTurnCount(0L);
-            battleDAO.insertBattleLog(battleLog);
-            Integer battleId = battleLog.getBattleId();
-
-            // 2. 초기 로그 (일반 로그 형태로 몬스터 조우 메시지를 한 번 더 전송)
-            List<String> logs = new ArrayList<>();
-            String initialLog = String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s)을(를) 마주쳤다!",
-                    monster.getMonsterName(), monsterHp, monsterAtk, monsterDef, monsterSpeed);
-            logs.add(initialLog);
-
-            // 초기 로그 전송 (클라이언트의 로그 창에 표시됨)
-            session.sendMessage(new TextMessage(initialLog));
-
-            int turn = 1;
-            while (playerHp > 0 && monsterHp > 0) {
-                boolean isPlayerAttack = (turn % 2 == 1) ? playerFirst : !playerFirst;
-                String actor = isPlayerAttack ? character.getCharacterName() : monster.getMonsterName();
-                String target = isPlayerAttack ? monster.getMonsterName() : character.getCharacterName();
-                int atk = isPlayerAttack ? playerAtk : monsterAtk;
-                int def = isPlayerAttack ? monsterDef : playerDef;
-                int critRate = isPlayerAttack ? playerCrit : monsterCrit;
-
-                boolean critical = Math.random() * 100 < critRate;
-                int damage = Math.max(1, (critical ? atk * 2 : atk) - def);
-
-                if (isPlayerAttack) monsterHp -= damage;
-                else playerHp -= damage;
-
-                boolean isBattleOver = (playerHp <= 0 || monsterHp <= 0);
-                String noteJson = openAIService.requestGPTNote(Map.of(
-                                "actor", actor,
-                                "target", target,
-                                "damage", damage,
-                                "critical", critical
-                                // isBattleOver는 Map 대신 인자로 전달합니다.
-                        ), noteStyle, isBattleOver // styleKey와 isBattleOver 인자를 전달
-                ).join();
-
-                noteJson = noteJson.replaceAll("(?s)^```json\\s*(.*?)\\s*```$", "$1")
-                        .replaceAll("(?s)^```\\s*(.*?)\\s*```$", "$1").trim();
-                if (noteJson.isEmpty()) noteJson = "{\"note\":\"[GPT 호출 실패]\"}";
-                if (!noteJson.startsWith("{")) {
-                    noteJson = "{\"note\":\"" + noteJson.replace("\"", "\\\"") + "\"}";
-                }
-
-                // JSON이 닫히지 않은 경우 복구 로직
-                if (!noteJson.endsWith("}")) {
-                    noteJson += "}";
-                    log.warn("GPT 응답 JSON 복구됨: 닫는 괄호 '}' 추가됨");
-                }
-                
-                Map<String, Object> noteMap;
-                try {
-                    noteMap = mapper.readValue(noteJson, new TypeReference<Map<String, Object>>() {});
-                } catch (Exception e) {
-                    log.error("GPT Note JSON 파싱 실패: {}", e.getMessage(), e);
-                    noteMap = Map.of("note", "[GPT 호출 실패: JSON 오류]");
-                }
-                String noteText = noteMap.getOrDefault("note", "[GPT 호출 실패: JSON 오류]").toString();
-
-                // 마지막 턴이면 로그에 승리/패배 메시지 포함
-                String actionLog = String.format(
-                        "턴 %d: %s가 공격으로 %d 데미지를 입힘%s\n%s \n(플레이어HP:%d, 몬스터HP:%d)\n%s",
-                        turn,
-                        actor,
-                        damage,
-                        critical ? " 크리티컬 히트!" : "",
-                        noteText,
-                        playerHp,
-                        monsterHp,
-                        ""
+    public CompletableFuture<Void> startBattleWebSocket(WebSocketSession session, Integer characterId, MonsterVO monster,
+                                                        String userId, String noteStyle, ScheduledExecutorService scheduler,
+                                                        Executor io) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        io.execute(() -> {
+            if (done.isDone()) return;
+            try {
+                CharacterVO character = characterDAO.selectCharacterById(characterId);
+                PveBattleSimulator.Combatant player = PveBattleSimulator.Combatant.of(character);
+                PveBattleSimulator.Combatant enemy = PveBattleSimulator.Combatant.of(monster);
+
+                // 전투 전체를 먼저 계산하고 턴 note 를 미리 요청 (조우 메시지 전송과 겹쳐서 진행)
+                PveBattleSimulator.Result sim = PveBattleSimulator.simulate(player, enemy);
+                List<CompletableFuture<String>> notes = requestNotes(sim, noteStyle, "[GPT 호출 실패: JSON 오류]");
+
+                // 1. 몬스터 정보를 별도의 JSON 객체로 클라이언트에게 전송
+                //    프론트에서 이 정보를 받아 몬스터 스탯/이미지 영역을 업데이트합니다.
+                Map<String, Object> encounterData = Map.ofEntries(
+                        Map.entry("type", "encounter"),
+                        Map.entry("monsterId", monster.getMonsterId()),
+                        Map.entry("imageOriginalName", monster.getImageOriginalName()),
+                        Map.entry("imageUrl", monster.getImageUrl()),
+                        Map.entry("monsterName", monster.getMonsterName()),
+                        Map.entry("imageId", monster.getImageId()),
+                        Map.entry("monsterHp", monster.getMonsterHp()),
+                        Map.entry("monsterAttack", monster.getMonsterAttack()),
+                        Map.entry("monsterDefense", monster.getMonsterDefense()),
+                        Map.entry("monsterSpeed", monster.getMonsterSpeed()),
+                        Map.entry("monsterCriticalRate", monster.getMonsterCriticalRate())
                 );
-                logs.add(actionLog);
+                session.sendMessage(new TextMessage(NOTE_MAPPER.writeValueAsString(encounterData)));
+                log.info("클라이언트에게 몬스터 조우 정보 전송: {}", monster.getMonsterName());
+
+                // 전투 기록 DB
+                BattleLogVO battleLog = new BattleLogVO();
+                battleLog.setCharacterId(characterId);
+                battleLog.setOpponentId(monster.getMonsterId());
+                battleLog.setBattleType("PVE");
+                battleLog.setCreatedBy(userId);
+                battleLog.setIsWin("N");
+                battleLog.setTurnCount(0L);
+                battleDAO.insertBattleLog(battleLog);
+
+                // 2. 초기 로그 (일반 로그 형태로 몬스터 조우 메시지를 한 번 더 전송)
+                String initialLog = String.format("%s(HP:%s, 공격:%s, 방어:%s, 속도:%s)을(를) 마주쳤다!",
+                        enemy.name(), enemy.hp(), enemy.attack(), enemy.defense(), enemy.speed());
+
+                // 초기 로그 전송 (클라이언트의 로그 창에 표시됨)
+                session.sendMessage(new TextMessage(initialLog));
+
+                // 3. 턴 순서대로 전송: 스케줄러에 턴 단위로 예약 (대기 중 스레드 점유 없음)
+                new WsBattleRun(session, sim, notes, player, enemy, battleLog, character, monster, userId, scheduler, io, done)
+                        .awaitTurn(0, System.currentTimeMillis());
+            } catch (Exception e) {
+                failBattle(session, e, done);
+            }
+        });
+        return done;
+    }
 
-                // 프론트로 전송
-                session.sendMessage(new TextMessage(actionLog));
+    /**
+     * WebSocket 전투 1회 진행 상태.
+     * 턴 note 가 도착하면 전송 시각(직전 전송 + TURN_PACE_MS)에 맞춰 다음 단계를 예약한다.
+     * 스케줄러는 시각에 맞춰 io 에 넘기기만 하고, 전송/DB 기록은 io 스레드에서 한다.
+     * done 이 취소(세션 종료)되면 이후 단계는 아무것도 하지 않는다.
+     */
+    private final class WsBattleRun {
+        private final WebSocketSession session;
+        private final PveBattleSimulator.Result sim;
+        private final List<CompletableFuture<String>> notes;
+        private final PveBattleSimulator.Combatant player;
+        private final PveBattleSimulator.Combatant enemy;
+        /** 실제로 전송한 턴의 note (리플레이 저장용) */
+        private final List<String> sentNotes = new CopyOnWriteArrayList<>();
+        private final BattleLogVO battleLog;
+        private final CharacterVO character;
+        private final MonsterVO monster;
+        private final String userId;
+        private final ScheduledExecutorService scheduler;
+        private final Executor io;
+        private final CompletableFuture<Void> done;
+        private volatile ScheduledFuture<?> pending;
+
+        WsBattleRun(WebSocketSession session, PveBattleSimulator.Result sim, List<CompletableFuture<String>> notes,
+                    PveBattleSimulator.Combatant player, PveBattleSimulator.Combatant enemy, BattleLogVO battleLog, CharacterVO character, MonsterVO monster, String userId,
+                    ScheduledExecutorService scheduler, Executor io, CompletableFuture<Void> done) {
+            this.session = session;
+            this.sim = sim;
+            this.notes = notes;
+            this.player = player;
+            this.enemy = enemy;
+            this.battleLog = battleLog;
+            this.character = character;
+            this.monster = monster;
+            this.userId = userId;
+            this.scheduler = scheduler;
+            this.io = io;
+            this.done = done;
+            done.whenComplete((v, e) -> {
+                ScheduledFuture<?> p = pending;
+                if (p != null) p.cancel(false);
+                // 종료/실패/취소 모두 진행된 턴까지 저장
+                if (replayEnabled) saveReplay();
+                else turnLogBuffer.flush(battleLog.getBattleId());
+            });
+        }
 
-                // DB 저장
-                TurnLogVO turnLog = new TurnLogVO();
-                turnLog.setBattleId(battleId);
-                turnLog.setTurnNumber(turn);
-                turnLog.setActionDetail(actionLog);
-                turnLogDAO.insertTurnLog(turnLog);
+        private void saveReplay() {
+            List<String> sent = List.copyOf(sentNotes);
+            if (sent.isEmpty()) return;
+            try {
+                battleReplayDAO.insertBattleReplay(BattleReplayCodec.encode(battleLog.getBattleId(),
+                        BattleReplayCodec.LAYOUT_WS, sim.seed(), player, enemy,
+                        sim.turns().subList(0, sent.size()), sent));
+            } catch (Exception e) {
+                log.error("[PVE] 리플레이 저장 실패 battleId={}", battleLog.getBattleId(), e);
+            }
+        }
 
-                Thread.sleep(1000);
-                turn++;
+        /** i 번째 턴 note 를 기다렸다가 sendAt 이후에 전송 (i == 턴 수면 종료 처리) */
+        void awaitTurn(int i, long sendAt) {
+            if (done.isDone()) return;
+            if (i == sim.turnCount()) {
+                schedule(this::finish, sendAt);
+                return;
             }
+            notes.get(i).whenComplete((note, e) ->
+                    schedule(() -> sendTurn(i, e == null ? note : "[GPT 호출 실패]"), sendAt));
+        }
+
+        private void sendTurn(int i, String noteText) {
+            if (done.isDone()) return;
+            try {
+                PveBattleSimulator.Turn t = sim.turns().get(i);
+                String actionLog = BattleReplayCodec.formatWsTurn(t, noteText);
 
-            boolean isWin = monsterHp <= 0;
+                // 프론트로 전송
+                session.sendMessage(new TextMessage(actionLog));
+                long nextSendAt = System.currentTimeMillis() + TURN_PACE_MS;
+
+                // DB 저장 (리플레이는 전투 종료 시 1행, 아니면 write-behind 후 일괄 flush)
+                if (replayEnabled) {
+                    sentNotes.add(noteText);
+                } else {
+                    TurnLogVO turnLog = new TurnLogVO();
+                    turnLog.setBattleId(battleLog.getBattleId());
+                    turnLog.setTurnNumber(t.turn());
+                    turnLog.setActionDetail(actionLog);
+                    turnLogBuffer.append(turnLog);
+                }
 
-            // 전투 종료 메시지 전송
-            Map<String, Object> result = Map.of(
-                    "type", "end",
-                    "result", isWin ? "win" : "lose"
-            );
-            session.sendMessage(new TextMessage(mapper.writeValueAsString(result)));
-            // DB 기록
-            battleLog.setIsWin(isWin ? "Y" : "N");
-            battleLog.setTurnCount((long) (turn - 1));
-            battleDAO.updateBattleLogResult(battleLog);
+                awaitTurn(i + 1, nextSendAt);
+            } catch (Exception e) {
+                failBattle(session, e, done);
+            }
+        }
+
+        /** 전투 종료 메시지 전송 (마지막 턴 후에도 같은 간격 유지) + 결과 기록 */
+        private void finish() {
+            if (done.isDone()) return;
+            try {
+                boolean isWin = sim.playerWin();
+                Map<String, Object> result = Map.of(
+                        "type", "end",
+                        "result", isWin ? "win" : "lose"
+                );
+                session.sendMessage(new TextMessage(NOTE_MAPPER.writeValueAsString(result)));
+                // DB 기록
+                battleLog.setIsWin(isWin ? "Y" : "N");
+                battleLog.setTurnCount((long) sim.turnCount());
+                battleDAO.updateBattleLogResult(battleLog);
 
-            if (isWin) characterDAO.incrementStageClear(character.getCharacterId());
+                if (isWin) recordStageClear(character.getCharacterId());
 
-            if (isWin) {
-                log.info("[PVE 퀘스트 체크] monster={}, userId={}", monster.getMonsterName(), userId);
-                questService.updateQuestProgress(userId, "PVE");
+                if (isWin) {
+                    log.info("[PVE 퀘스트 체크] monster={}, userId={}", monster.getMonsterName(), userId);
+                    questService.updateQuestProgress(userId, "PVE");
+                }
+                done.complete(null);
+            } catch (Exception e) {
+                failBattle(session, e, done);
             }
+        }
 
+        private void schedule(Runnable step, long at) {
+            if (done.isDone()) return;
+            try {
+                pending = scheduler.schedule(() -> runOnIo(step), Math.max(0L, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 서버 종료 중
+                done.cancel(false);
+            }
+        }
 
-        } catch (Exception e) {
+        private void runOnIo(Runnable step) {
+            if (done.isDone()) return;
             try {
-                session.sendMessage(new TextMessage("{\"type\":\"error\",\"msg\":\"" + e.getMessage() + "\"}"));
-            } catch (IOException ex) {
-                ex.printStackTrace();
+                io.execute(step);
+            } catch (RejectedExecutionException e) {
+                // 서버 종료 중
+                done.cancel(false);
             }
         }
     }
 
+    private static void failBattle(WebSocketSession session, Exception e, CompletableFuture<Void> done) {
+        if (done.isDone()) return;
+        try {
+            session.sendMessage(new TextMessage("{\"type\":\"error\",\"msg\":\"" + e.getMessage() + "\"}"));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        done.completeExceptionally(e);
+    }
+
+    // ---------- helpers ----------
+
+    /** 턴 간 최소 전송 간격 (기존 Thread.sleep(1000) 연출 유지) */
+    private static final long TURN_PACE_MS = 1000L;
+
+    /** 스테이지 클리어 수와 랭킹 집계(TB_CHARACTER_RANKING_STAT)를 한 트랜잭션으로 올리고 랭킹 보드 반영 */
+    private void recordStageClear(Integer characterId) {
+        txTemplate.executeWithoutResult(status -> {
+            characterDAO.incrementStageClear(characterId);
+            rankingStatDAO.addPveClear(characterId);
+        });
+        rankingBoards.onStageClear(characterId);
+    }
+
+    /**
+     * 턴별 note 텍스트 (인덱스 = 턴 - 1).
+     * - BATCH: 전투 전체를 요청 1회로 일괄 생성 (기본)
+     * - PER_TURN: 턴마다 요청을 한꺼번에 발사
+     */
+    private List<CompletableFuture<String>> requestNotes(PveBattleSimulator.Result sim, String styleKey, String fallback) {
+        List<Map<String, Object>> turnData = new ArrayList<>(sim.turnCount());
+        for (PveBattleSimulator.Turn t : sim.turns()) {
+            turnData.add(Map.of(
+                    "actor", t.actor(),
+                    "target", t.target(),
+                    "damage", t.damage(),
+                    "critical", t.critical(),
+                    "isBattleOver", t.battleOver()
+            ));
+        }
+
+        // 실패/시간 초과 시 뱅크 문구 → 턴 기본 문구 대체는 OpenAIService 에서
+        if ("BATCH".equalsIgnoreCase(noteMode)) {
+            return openAIService.requestGPTBattleNotes(turnData, styleKey);
+        }
+
+        List<CompletableFuture<String>> notes = new ArrayList<>(sim.turnCount());
+        for (int i = 0; i < turnData.size(); i++) {
+            Map<String, Object> t = turnData.get(i);
+            notes.add(openAIService.requestGPTNote(Map.of(
+                            "actor", t.get("actor"),
+                            "target", t.get("target"),
+                            "damage", t.get("damage"),
+                            "critical", t.get("critical")
+                    ), styleKey, sim.turns().get(i).battleOver()
+            ).thenApply(raw -> parseNote(raw, fallback)));
+        }
+        return notes;
+    }
+
+    /** GPT 응답(코드블록/비JSON/닫는 괄호 누락 허용)에서 note 텍스트 추출 */
+    private static String parseNote(String noteJson, String fallback) {
+        if (noteJson == null) return fallback;
+        noteJson = noteJson.replaceAll("(?s)^```json\\s*(.*?)\\s*```$", "$1")
+                .replaceAll("(?s)^```\\s*(.*?)\\s*```$", "$1").trim();
+        if (noteJson.isEmpty()) return fallback;
+        if (!noteJson.startsWith("{")) {
+            noteJson = "{\"note\":\"" + noteJson.replace("\"", "\\\"") + "\"}";
+        }
+
+        // JSON이 닫히지 않은 경우 복구 로직
+        if (!noteJson.endsWith("}")) {
+            noteJson += "}";
+            log.warn("GPT 응답 JSON 복구됨: 닫는 괄호 '}' 추가됨");
+        }
+
+        try {
+            Map<String, Object> noteMap = NOTE_MAPPER.readValue(noteJson, new TypeReference<Map<String, Object>>() {});
+            return noteMap.getOrDefault("note", fallback).toString();
+        } catch (Exception e) {
+            log.error("GPT Note JSON 파싱 실패: {}", e.getMessage());
+            return fallback;
+        }
+    }
+
+    private static final ObjectMapper NOTE_MAPPER = new ObjectMapper();
 }
@@ -0,0 +1,176 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.character.vo.CharacterStatVO;
+import com.project.gmaking.character.vo.CharacterVO;
+import com.project.gmaking.pve.vo.MonsterVO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PVE 전투 엔진 (순수 함수, 시드 고정 시 결과 재현 가능).
+ * 턴 결과(공격자, 데미지, 크리티컬, 남은 HP)는 난수만 정해지면 해설과 무관하게 결정되므로
+ * 전투 전체를 먼저 계산해 두고, 해설(GPT note)은 턴별로 병렬 요청한다.
+ * - simulate      : 턴 목록(Turn) 생성, 시드는 Result 에 남겨 리플레이에 저장
+ * - packedTurns   : 턴당 int 1개 (damage << 2 | 플래그) 배열
+ * - fight         : 할당 없이 승패/턴 수만 (밸런스 시뮬레이션용)
+ */
+public final class PveBattleSimulator {
+
+    private PveBattleSimulator() {}
+
+    /** packed 턴 플래그: 플레이어 공격 */
+    public static final int FLAG_PLAYER_ATTACK = 1;
+    /** packed 턴 플래그: 크리티컬 */
+    public static final int FLAG_CRITICAL = 1 << 1;
+
+    /** 전투 참가자 스탯 (전투 시작 시점 스냅샷) */
+    public record Combatant(String name, int hp, int attack, int defense, int speed, int criticalRate) {
+
+        public static Combatant of(CharacterVO character) {
+            CharacterStatVO stat = character.getCharacterStat();
+            return new Combatant(
+                    character.getCharacterName(),
+                    orDefault(stat.getCharacterHp(), 1),
+                    orDefault(stat.getCharacterAttack(), 1),
+                    orDefault(stat.getCharacterDefense(), 1),
+                    orDefault(stat.getCharacterSpeed(), 1),
+                    orDefault(stat.getCriticalRate(), 1));
+        }
+
+        public static Combatant of(MonsterVO monster) {
+            return new Combatant(
+                    monster.getMonsterName(),
+                    orDefault(monster.getMonsterHp(), 1),
+                    orDefault(monster.getMonsterAttack(), 0),
+                    orDefault(monster.getMonsterDefense(), 0),
+                    orDefault(monster.getMonsterSpeed(), 0),
+                    orDefault(monster.getMonsterCriticalRate(), 0));
+        }
+
+        private static int orDefault(Integer v, int def) {
+            return v != null ? v : def;
+        }
+    }
+
+    /** 한 턴 결과 (HP 는 이 턴 적용 후 값) */
+    public record Turn(int turn,
+                       boolean playerAttack,
+                       String actor,
+                       String target,
+                       int damage,
+                       boolean critical,
+                       int playerHp,
+                       int monsterHp,
+                       boolean battleOver) {}
+
+    /** 전체 결과 */
+    public record Result(List<Turn> turns, boolean playerWin, long seed) {
+        public int turnCount() { return turns.size(); }
+    }
+
+    /** 임의 시드로 전투 (시드는 Result.seed) */
+    public static Result simulate(Combatant player, Combatant monster) {
+        return simulate(player, monster, ThreadLocalRandom.current().nextLong());
+    }
+
+    /** 같은 시드 + 같은 스탯이면 항상 같은 결과 */
+    public static Result simulate(Combatant player, Combatant monster, long seed) {
+        int[] packed = packedTurns(player, monster, new SplittableRandom(seed));
+        return new Result(unpack(player, monster, packed, packed.length), lastHpOf(monster, packed) <= 0, seed);
+    }
+
+    /** packed 턴 배열 → Turn 목록 (count 개까지) */
+    public static List<Turn> unpack(Combatant player, Combatant monster, int[] packed, int count) {
+        List<Turn> turns = new ArrayList<>(count);
+        int playerHp = player.hp();
+        int monsterHp = monster.hp();
+        for (int i = 0; i < count; i++) {
+            int p = packed[i];
+            boolean isPlayerAttack = (p & FLAG_PLAYER_ATTACK) != 0;
+            int damage = p >>> 2;
+            if (isPlayerAttack) monsterHp -= damage;
+            else playerHp -= damage;
+            turns.add(new Turn(i + 1, isPlayerAttack,
+                    isPlayerAttack ? player.name() : monster.name(),
+                    isPlayerAttack ? monster.name() : player.name(),
+                    damage, (p & FLAG_CRITICAL) != 0,
+                    playerHp, monsterHp, playerHp <= 0 || monsterHp <= 0));
+        }
+        return turns;
+    }
+
+    /** 턴당 int 1개: damage << 2 | FLAG_CRITICAL | FLAG_PLAYER_ATTACK */
+    public static int[] packedTurns(Combatant player, Combatant monster, SplittableRandom rnd) {
+        int playerHp = player.hp();
+        int monsterHp = monster.hp();
+        boolean playerFirst = player.speed() >= monster.speed();
+        int pDamage = Math.max(1, player.attack() - monster.defense());
+        int pCritDamage = Math.max(1, player.attack() * 2 - monster.defense());
+        int mDamage = Math.max(1, monster.attack() - player.defense());
+        int mCritDamage = Math.max(1, monster.attack() * 2 - player.defense());
+
+        int[] out = new int[16];
+        int n = 0;
+        while (playerHp > 0 && monsterHp > 0) {
+            boolean isPlayerAttack = (n % 2 == 0) == playerFirst;
+            int flags;
+            int damage;
+            if (isPlayerAttack) {
+                boolean critical = rnd.nextDouble() * 100 < player.criticalRate();
+                damage = critical ? pCritDamage : pDamage;
+                monsterHp -= damage;
+                flags = FLAG_PLAYER_ATTACK | (critical ? FLAG_CRITICAL : 0);
+            } else {
+                boolean critical = rnd.nextDouble() * 100 < monster.criticalRate();
+                damage = critical ? mCritDamage : mDamage;
+                playerHp -= damage;
+                flags = critical ? FLAG_CRITICAL : 0;
+            }
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = damage << 2 | flags;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * 승패와 턴 수만 계산 (객체 할당 없음).
+     * 반환값: (턴 수 << 1) | (플레이어 승리 ? 1 : 0)
+     */
+    public static long fight(int pHp, int pAtk, int pDef, int pSpd, int pCrit,
+                             int mHp, int mAtk, int mDef, int mSpd, int mCrit,
+                             SplittableRandom rnd) {
+        boolean playerFirst = pSpd >= mSpd;
+        int pDamage = Math.max(1, pAtk - mDef);
+        int pCritDamage = Math.max(1, pAtk * 2 - mDef);
+        int mDamage = Math.max(1, mAtk - pDef);
+        int mCritDamage = Math.max(1, mAtk * 2 - pDef);
+
+        long turns = 0;
+        while (pHp > 0 && mHp > 0) {
+            if ((turns % 2 == 0) == playerFirst) {
+                mHp -= rnd.nextDouble() * 100 < pCrit ? pCritDamage : pDamage;
+            } else {
+                pHp -= rnd.nextDouble() * 100 < mCrit ? mCritDamage : mDamage;
+            }
+            turns++;
+        }
+        return turns << 1 | (mHp <= 0 ? 1 : 0);
+    }
+
+    public static long fight(Combatant player, Combatant monster, SplittableRandom rnd) {
+        return fight(player.hp(), player.attack(), player.defense(), player.speed(), player.criticalRate(),
+                monster.hp(), monster.attack(), monster.defense(), monster.speed(), monster.criticalRate(), rnd);
+    }
+
+    private static int lastHpOf(Combatant monster, int[] packed) {
+        int hp = monster.hp();
+        for (int p : packed) {
+            if ((p & FLAG_PLAYER_ATTACK) != 0) hp -= p >>> 2;
+        }
+        return hp;
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.gmaking.pve.service;
+
+import com.project.gmaking.pve.dao.TurnLogDAO;
+import com.project.gmaking.pve.vo.TurnLogVO;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 턴 로그 write-behind 버퍼 (PVE WebSocket / PVP 공용).
+ * - 전투(battleId)별로 모았다가 batch-size 턴마다, 또는 전투 종료 시 flush(battleId) 로 multi-row INSERT 1회
+ * - 끝나지 않고 방치된 전투(PVP 이탈 등)는 max-age 가 지나면 주기 flush 에서 저장
+ * - write-behind 를 끄면 append 즉시 저장 (기존 동작)
+ * 생성 시각은 append 시점으로 채워서 늦게 저장돼도 CREATED_DATE 가 턴 시각과 같다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TurnLogWriteBuffer {
+
+    private final TurnLogDAO turnLogDAO;
+
+    @Value("${battle.turn-log.write-behind:true}")
+    private boolean writeBehind;
+
+    @Value("${battle.turn-log.batch-size:20}")
+    private int batchSize;
+
+    @Value("${battle.turn-log.max-age-ms:10000}")
+    private long maxAgeMs;
+
+    private final Map<Integer, Pending> buffers = new ConcurrentHashMap<>();
+
+    private static final class Pending {
+        final List<TurnLogVO> logs = new ArrayList<>();
+        final long firstAt = System.currentTimeMillis();
+    }
+
+    public void append(TurnLogVO turnLog) {
+        if (turnLog.getCreatedDate() == null) turnLog.setCreatedDate(LocalDateTime.now());
+        if (!writeBehind || turnLog.getBattleId() == null) {
+            turnLogDAO.insertTurnLog(turnLog);
+            return;
+        }
+
+        List<TurnLogVO> full = new ArrayList<>();
+        buffers.compute(turnLog.getBattleId(), (id, p) -> {
+            if (p == null) p = new Pending();
+            p.logs.add(turnLog);
+            if (p.logs.size() < batchSize) return p;
+            full.addAll(p.logs);
+            return null;
+        });
+        write(full);
+    }
+
+    /** 전투 종료/중단 시 해당 전투의 남은 턴 로그 저장 */
+    public void flush(Integer battleId) {
+        if (battleId == null) return;
+        Pending p = buffers.remove(battleId);
+        if (p != null) write(p.logs);
+    }
+
+    @Scheduled(fixedDelayString = "${battle.turn-log.flush-interval-ms:5000}")
+    public void flushStale() {
+        long now = System.currentTimeMillis();
+        for (Integer battleId : List.copyOf(buffers.keySet())) {
+            Pending p = buffers.get(battleId);
+            if (p != null && now - p.firstAt >= maxAgeMs) flush(battleId);
+        }
+    }
+
+    @PreDestroy
+    void flushAll() {
+        List.copyOf(buffers.keySet()).forEach(this::flush);
+    }
+
+    private void write(List<TurnLogVO> logs) {
+        if (logs.isEmpty()) return;
+        try {
+            turnLogDAO.insertTurnLogs(logs);
+        } catch (Exception e) {
+            log.error("[TurnLog] 일괄 저장 실패 battleId={}, count={}", logs.get(0).getBattleId(), logs.size(), e);
+        }
+    }
+}
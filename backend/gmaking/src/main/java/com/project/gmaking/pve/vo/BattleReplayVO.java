@@ -0,0 +1,20 @@
+package com.project.gmaking.pve.vo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** PVE 전투 리플레이 (TB_BATTLE_REPLAY, 인코딩은 BattleReplayCodec) */
+@Data
+@NoArgsConstructor
+public class BattleReplayVO {
+    private Integer battleId;
+    private Integer formatVersion;
+    private Integer layout;
+    private Long seed;
+    private String statsJson;
+    private byte[] turnData;
+    private byte[] noteBlob;
+    private LocalDateTime createdDate;
+}
@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.util.Map;
@@ -18,18 +19,24 @@ import java.util.concurrent.ConcurrentHashMap;
 public class BattleWebSocketHandler extends TextWebSocketHandler {
 
     private final PveBattleService pveBattleService;
+    private final PveBattleExecutor battleExecutor;
     private final ObjectMapper mapper = new ObjectMapper();
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
 
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT = 512 * 1024;
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
         String userId = (String) session.getAttributes().get("userId");
         System.out.println("WebSocket 연결 성공: " + session.getId() + ", userId=" + userId);
-        sessions.put(session.getId(), session);
+        // 전투 전송은 세션별 버퍼로 (동시 전송 직렬화, 느린 클라이언트는 제한 초과 시 연결 종료)
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT));
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        WebSocketSession out = sessions.getOrDefault(session.getId(), session);
         try {
             Map<String, Object> data = mapper.readValue(message.getPayload(), new TypeReference<Map<String, Object>>() {});
             Integer characterId = Integer.parseInt(data.get("characterId").toString());
@@ -39,11 +46,23 @@ public class BattleWebSocketHandler extends TextWebSocketHandler {
             MonsterVO monster = pveBattleService.encounterMonster(mapId);
             String noteStyle = (String) data.getOrDefault("noteStyle", "COMIC");
 
-            new Thread(() -> pveBattleService.startBattleWebSocket(session, characterId, monster, userId, noteStyle)).start();
+            PveBattleExecutor.Admission admission = battleExecutor.submit(session.getId(), userId,
+                    (scheduler, io) -> pveBattleService.startBattleWebSocket(
+                            out, characterId, monster, userId, noteStyle, scheduler, io));
+            if (admission != PveBattleExecutor.Admission.ACCEPTED) {
+                String msg = admission == PveBattleExecutor.Admission.USER_BUSY
+                        ? "동시에 진행할 수 있는 전투 수(" + battleExecutor.maxPerUser() + ")를 초과했습니다. 진행 중인 전투가 끝난 뒤 다시 시도해주세요."
+                        : "전투 요청이 많습니다. 잠시 후 다시 시도해주세요.";
+                out.sendMessage(new TextMessage(mapper.writeValueAsString(
+                        Map.of("type", "error", "code", admission.name(), "msg", msg))));
+            } else if (!session.isOpen()) {
+                // 제출 직후 연결이 끊긴 경우
+                battleExecutor.cancelSession(session.getId());
+            }
         } catch (Exception e) {
             e.printStackTrace();
             try {
-                session.sendMessage(new TextMessage("오류 발생: " + e.getMessage()));
+                out.sendMessage(new TextMessage("오류 발생: " + e.getMessage()));
             } catch (Exception ex) {
                 ex.printStackTrace();
             }
@@ -54,5 +73,6 @@ public class BattleWebSocketHandler extends TextWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, org.springframework.web.socket.CloseStatus status) {
         System.out.println("연결 종료: " + session.getId());
         sessions.remove(session.getId());
+        battleExecutor.cancelSession(session.getId());
     }
 }
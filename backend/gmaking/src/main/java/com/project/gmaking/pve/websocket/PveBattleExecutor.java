@@ -0,0 +1,147 @@
+package com.project.gmaking.pve.websocket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * WebSocket PVE 전투 실행기.
+ * - 전투는 스케줄러 위의 단계(턴 전송) 단위로 돌아가서 턴 간격/note 대기 중에는 스레드를 점유하지 않음
+ * - 스케줄러는 시각 맞추기만 하고, 단계 본문(DB 기록 / WebSocket 전송)은 별도 io 풀에서 실행
+ *   (느린 클라이언트나 DB 지연이 다른 전투의 다음 턴을 밀지 않도록)
+ * - 입장 제어: 서버 전체 동시 전투 수, 유저별 동시 전투 수
+ * - 세션이 닫히면 그 세션의 전투를 취소, 종료 시 진행 중 전투 취소 후 스케줄러 정리
+ */
+@Slf4j
+@Component
+public class PveBattleExecutor {
+
+    public enum Admission { ACCEPTED, SERVER_BUSY, USER_BUSY }
+
+    @Value("${pve.battle.max-concurrent:200}")
+    private int maxConcurrent;
+
+    @Value("${pve.battle.max-per-user:2}")
+    private int maxPerUser;
+
+    @Value("${pve.battle.scheduler-threads:4}")
+    private int schedulerThreads;
+
+    @Value("${pve.battle.io-threads:16}")
+    private int ioThreads;
+
+    private ScheduledThreadPoolExecutor scheduler;
+    /** 전투마다 대기 단계는 최대 1개라 대기열 길이는 max-concurrent 이내 */
+    private ThreadPoolExecutor io;
+    private final AtomicInteger running = new AtomicInteger();
+    private final Map<String, Integer> perUser = new ConcurrentHashMap<>();
+    private final Map<String, Set<CompletableFuture<Void>>> bySession = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        scheduler = new ScheduledThreadPoolExecutor(Math.max(1, schedulerThreads), r -> {
+            Thread t = new Thread(r, "pve-battle-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        AtomicInteger ioSeq = new AtomicInteger();
+        int n = Math.max(1, ioThreads);
+        io = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "pve-battle-io-" + ioSeq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 전투 시작 요청. 자리가 있으면 battle 에 스케줄러와 io 풀을 넘겨 시작하고 ACCEPTED,
+     * 상한에 걸리면 시작하지 않고 SERVER_BUSY / USER_BUSY.
+     */
+    public Admission submit(String sessionId, String userId,
+                            BiFunction<ScheduledExecutorService, Executor, CompletableFuture<Void>> battle) {
+        if (running.incrementAndGet() > maxConcurrent) {
+            running.decrementAndGet();
+            return Admission.SERVER_BUSY;
+        }
+        String userKey = (userId != null) ? userId : "session:" + sessionId;
+        if (perUser.merge(userKey, 1, Integer::sum) > maxPerUser) {
+            release(userKey);
+            return Admission.USER_BUSY;
+        }
+
+        CompletableFuture<Void> f;
+        try {
+            f = battle.apply(scheduler, io);
+        } catch (RuntimeException e) {
+            release(userKey);
+            throw e;
+        }
+        bySession.compute(sessionId, (k, s) -> {
+            if (s == null) s = ConcurrentHashMap.newKeySet();
+            s.add(f);
+            return s;
+        });
+        f.whenComplete((v, e) -> {
+            release(userKey);
+            bySession.computeIfPresent(sessionId, (k, s) -> {
+                s.remove(f);
+                return s.isEmpty() ? null : s;
+            });
+        });
+        return Admission.ACCEPTED;
+    }
+
+    /** 세션의 진행 중 전투 취소 (다음 턴부터 전송/저장 중단) */
+    public void cancelSession(String sessionId) {
+        Set<CompletableFuture<Void>> set = bySession.remove(sessionId);
+        if (set == null) return;
+        for (CompletableFuture<Void> f : List.copyOf(set)) {
+            if (f.cancel(false)) log.info("[PVE] 세션 종료로 전투 취소: session={}", sessionId);
+        }
+    }
+
+    public int running() {
+        return running.get();
+    }
+
+    public int maxPerUser() {
+        return maxPerUser;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        bySession.keySet().forEach(this::cancelSession);
+        scheduler.shutdown();
+        io.shutdown();
+        if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+            scheduler.shutdownNow();
+        }
+        if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+            io.shutdownNow();
+        }
+    }
+
+    private void release(String userKey) {
+        running.decrementAndGet();
+        perUser.computeIfPresent(userKey, (k, c) -> c <= 1 ? null : c - 1);
+    }
+}
@@ -2,6 +2,7 @@ package com.project.gmaking.pvp.controller;
 
 import com.project.gmaking.character.vo.CharacterVO;
 import com.project.gmaking.pvp.service.PvpBattleService;
+import com.project.gmaking.pvp.service.PvpMatchmakingIndex;
 import com.project.gmaking.pvp.vo.PvpBattleVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -21,16 +22,18 @@ public class PvpBattleController {
 
     // 상대방 찾기
     @GetMapping("/match")
-    public ResponseEntity<?> findOpponent(@RequestParam String userId) {
-        String opponentId = pvpBattleService.findRandomOpponent(userId);
-        if (opponentId == null) {
+    public ResponseEntity<?> findOpponent(@RequestParam String userId,
+                                          @RequestParam(required = false) Integer characterId) {
+        PvpMatchmakingIndex.Match match = pvpBattleService.findOpponent(userId, characterId);
+        if (match == null) {
             return ResponseEntity.badRequest().body("매칭 가능한 상대가 없습니다.");
         }
 
-        List<CharacterVO> opponentChars = pvpBattleService.getOpponentCharacters(opponentId);
+        List<CharacterVO> opponentChars = pvpBattleService.getOpponentCharacters(match.userId());
         Map<String, Object> result = new LinkedHashMap<>();
-        result.put("opponentId", opponentId);
+        result.put("opponentId", match.userId());
         result.put("characters", opponentChars);
+        result.put("matchedCharacterId", match.characterId()); // 전투력이 가까운 상대 캐릭터 (랜덤 매칭이면 null)
 
         return ResponseEntity.ok(result);
     }
@@ -55,21 +58,10 @@ public class PvpBattleController {
         Integer battleId = (Integer) request.get("battleId");
         String myCommand = (String) request.get("command");
 
-        PvpBattleVO battle = pvpBattleService.getBattleById(battleId);
-        if (battle == null) return ResponseEntity.badRequest().body("배틀 정보를 찾을 수 없습니다.");
+        // 턴 진행 (HP, 로그 업데이트) + 전투가 끝나면 최종 BattleLog 저장
+        PvpBattleVO updatedBattle = pvpBattleService.playTurn(battleId, myCommand);
+        if (updatedBattle == null) return ResponseEntity.badRequest().body("배틀 정보를 찾을 수 없습니다.");
 
-        if (battle.isBattleOver()) {
-            battle.setEnemyCommand(""); // 중앙 표시 초기화
-            return ResponseEntity.ok(battle);
-        }
-        // 1. 턴 진행 (HP, 로그 업데이트)
-        PvpBattleVO updatedBattle = pvpBattleService.processTurn(battle, myCommand);
-
-        // 2. 전투 종료 여부 확인 및 DB 저장
-        if (updatedBattle.isBattleOver()) {
-            // 전투가 종료되었으면 최종 BattleLog를 DB에 저장합니다.
-            pvpBattleService.endBattle(updatedBattle);
-        }
         return ResponseEntity.ok(updatedBattle);
     }
 
@@ -0,0 +1,27 @@
+package com.project.gmaking.pvp.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface ActiveBattleDAO {
+
+    // 전투 상태 등록 (같은 ID 가 있으면 덮어씀)
+    void upsertActiveBattle(@Param("battleId") Integer battleId, @Param("battleJson") String battleJson);
+
+    String selectActiveBattle(Integer battleId);
+
+    // 턴 처리용 행 잠금 조회 (트랜잭션 안에서만)
+    String selectActiveBattleForUpdate(Integer battleId);
+
+    void updateActiveBattle(@Param("battleId") Integer battleId, @Param("battleJson") String battleJson);
+
+    void deleteActiveBattle(Integer battleId);
+
+    List<Integer> selectExpiredBattleIds(LocalDateTime cutoff);
+
+    int deleteExpiredBattle(@Param("battleId") Integer battleId, @Param("cutoff") LocalDateTime cutoff);
+}
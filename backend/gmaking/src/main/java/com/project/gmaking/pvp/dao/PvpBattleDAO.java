@@ -1,9 +1,12 @@
 package com.project.gmaking.pvp.dao;
 
 import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pvp.vo.PvpMatchCandidateVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 @Mapper
 public interface PvpBattleDAO {
 
@@ -22,4 +25,10 @@ public interface PvpBattleDAO {
 
     // 배틀 로그 결과 업데이트 (전투 종료 시)
     void updateBattleLogResult(BattleLogVO battleLog);
+
+    // 매칭 인덱스 적재: 능력치가 있는 전체 캐릭터
+    List<PvpMatchCandidateVO> selectMatchCandidates();
+
+    // 매칭 인덱스 Elo 계산용 PVP 결과 (끝난 전투만, 시간순)
+    List<BattleLogVO> selectPvpResults();
 }
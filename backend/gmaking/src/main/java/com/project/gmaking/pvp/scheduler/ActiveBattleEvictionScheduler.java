@@ -0,0 +1,32 @@
+package com.project.gmaking.pvp.scheduler;
+
+import com.project.gmaking.pve.service.TurnLogWriteBuffer;
+import com.project.gmaking.pvp.service.ActiveBattleStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 중간에 이탈한 PVP 전투 정리.
+ * ttl 이 지난 전투를 저장소에서 지우고 남아 있던 턴 로그를 flush 한다.
+ * (TB_BATTLE_LOG 는 시작 시 등록된 패배/0턴 상태 그대로 둠)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActiveBattleEvictionScheduler {
+
+    private final ActiveBattleStore activeBattleStore;
+    private final TurnLogWriteBuffer turnLogBuffer;
+
+    @Scheduled(fixedDelayString = "${pvp.battle-store.evict-interval-ms:60000}")
+    public void evict() {
+        List<Integer> evicted = activeBattleStore.evictExpired();
+        if (evicted.isEmpty()) return;
+        evicted.forEach(turnLogBuffer::flush);
+        log.info("[PVP] evicted {} abandoned battles {}", evicted.size(), evicted);
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.gmaking.pvp.service;
+
+import com.project.gmaking.pvp.vo.PvpBattleVO;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * 진행 중인 PVP 전투 상태 저장소.
+ * - local : 서버 메모리 (단일 노드)
+ * - jdbc  : TB_PVP_ACTIVE_BATTLE (여러 노드가 같은 전투를 이어서 처리)
+ * pvp.battle-store.type 으로 선택, 마지막 접근 후 ttl 이 지난 전투는 evictExpired 로 정리.
+ */
+public interface ActiveBattleStore {
+
+    void save(PvpBattleVO battle);
+
+    /** 없으면 null (조회만, 변경은 update 로) */
+    PvpBattleVO find(Integer battleId);
+
+    void remove(Integer battleId);
+
+    /**
+     * 전투별 잠금을 잡은 상태에서 action 을 적용하고 결과를 저장.
+     * 같은 전투에 대한 동시 요청은 순서대로 처리된다. 전투가 없으면 null.
+     */
+    PvpBattleVO update(Integer battleId, UnaryOperator<PvpBattleVO> action);
+
+    /** ttl 이 지난 전투를 제거하고 제거된 battleId 목록 반환 */
+    List<Integer> evictExpired();
+}
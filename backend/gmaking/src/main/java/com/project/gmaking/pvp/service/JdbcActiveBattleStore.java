@@ -0,0 +1,87 @@
+package com.project.gmaking.pvp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.gmaking.pvp.dao.ActiveBattleDAO;
+import com.project.gmaking.pvp.vo.PvpBattleVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * DB 공유 전투 저장소 (로드밸런서 뒤 여러 노드용).
+ * 전투 상태는 JSON 한 행, 전투별 잠금은 트랜잭션 안의 SELECT ... FOR UPDATE 행 잠금.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "pvp.battle-store.type", havingValue = "jdbc")
+public class JdbcActiveBattleStore implements ActiveBattleStore {
+
+    private final ActiveBattleDAO activeBattleDAO;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate txTemplate;
+
+    @Value("${pvp.battle-store.ttl-ms:1800000}")
+    private long ttlMs;
+
+    @Override
+    public void save(PvpBattleVO battle) {
+        activeBattleDAO.upsertActiveBattle(battle.getBattleId(), toJson(battle));
+    }
+
+    @Override
+    public PvpBattleVO find(Integer battleId) {
+        return fromJson(activeBattleDAO.selectActiveBattle(battleId));
+    }
+
+    @Override
+    public void remove(Integer battleId) {
+        activeBattleDAO.deleteActiveBattle(battleId);
+    }
+
+    @Override
+    public PvpBattleVO update(Integer battleId, UnaryOperator<PvpBattleVO> action) {
+        return txTemplate.execute(status -> {
+            PvpBattleVO battle = fromJson(activeBattleDAO.selectActiveBattleForUpdate(battleId));
+            if (battle == null) return null;
+            PvpBattleVO updated = action.apply(battle);
+            activeBattleDAO.updateActiveBattle(battleId, toJson(updated));
+            return updated;
+        });
+    }
+
+    @Override
+    public List<Integer> evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(ttlMs * 1_000_000);
+        List<Integer> evicted = new ArrayList<>();
+        for (Integer id : activeBattleDAO.selectExpiredBattleIds(cutoff)) {
+            // 조회와 삭제 사이에 갱신된 전투는 남김
+            if (activeBattleDAO.deleteExpiredBattle(id, cutoff) > 0) evicted.add(id);
+        }
+        return evicted;
+    }
+
+    private String toJson(PvpBattleVO battle) {
+        try {
+            return mapper.writeValueAsString(battle);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("PVP 전투 상태 직렬화 실패: " + battle.getBattleId(), e);
+        }
+    }
+
+    private PvpBattleVO fromJson(String json) {
+        if (json == null) return null;
+        try {
+            return mapper.readValue(json, PvpBattleVO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("PVP 전투 상태 역직렬화 실패", e);
+        }
+    }
+}
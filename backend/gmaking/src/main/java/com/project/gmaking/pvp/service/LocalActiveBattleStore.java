@@ -0,0 +1,87 @@
+package com.project.gmaking.pvp.service;
+
+import com.project.gmaking.pvp.vo.PvpBattleVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 메모리 전투 저장소 (기본값). battleId → 전투 상태 + 전투별 잠금.
+ */
+@Component
+@ConditionalOnProperty(name = "pvp.battle-store.type", havingValue = "local", matchIfMissing = true)
+public class LocalActiveBattleStore implements ActiveBattleStore {
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        volatile PvpBattleVO battle;
+        volatile long lastAccess;
+
+        Entry(PvpBattleVO battle) {
+            this.battle = battle;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    private final Map<Integer, Entry> battles = new ConcurrentHashMap<>();
+
+    @Value("${pvp.battle-store.ttl-ms:1800000}")
+    private long ttlMs;
+
+    @Override
+    public void save(PvpBattleVO battle) {
+        battles.put(battle.getBattleId(), new Entry(battle));
+    }
+
+    @Override
+    public PvpBattleVO find(Integer battleId) {
+        Entry e = battles.get(battleId);
+        if (e == null) return null;
+        e.lastAccess = System.currentTimeMillis();
+        return e.battle;
+    }
+
+    @Override
+    public void remove(Integer battleId) {
+        battles.remove(battleId);
+    }
+
+    @Override
+    public PvpBattleVO update(Integer battleId, UnaryOperator<PvpBattleVO> action) {
+        Entry e = battles.get(battleId);
+        if (e == null) return null;
+        e.lock.lock();
+        try {
+            // 잠금을 기다리는 동안 종료/정리된 전투
+            if (battles.get(battleId) != e) return null;
+            e.battle = action.apply(e.battle);
+            e.lastAccess = System.currentTimeMillis();
+            return e.battle;
+        } finally {
+            e.lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMs;
+        List<Integer> evicted = new ArrayList<>();
+        battles.forEach((id, e) -> {
+            // 턴 처리 중인 전투는 건너뜀
+            if (e.lastAccess >= cutoff || !e.lock.tryLock()) return;
+            try {
+                if (e.lastAccess < cutoff && battles.remove(id, e)) evicted.add(id);
+            } finally {
+                e.lock.unlock();
+            }
+        });
+        return evicted;
+    }
+}
@@ -7,9 +7,11 @@ import java.util.List;
 
 public interface PvpBattleService {
     String findRandomOpponent(String userId);
+    PvpMatchmakingIndex.Match findOpponent(String userId, Integer characterId);
     List<CharacterVO> getOpponentCharacters(String opponentId);
     PvpBattleVO startBattle(Integer myCharacterId, Integer opponentCharacterId);
     PvpBattleVO processTurn(PvpBattleVO battle, String myCommand);
     void endBattle(PvpBattleVO result);
     PvpBattleVO getBattleById(Integer battleId);
+    PvpBattleVO playTurn(Integer battleId, String myCommand);
 }
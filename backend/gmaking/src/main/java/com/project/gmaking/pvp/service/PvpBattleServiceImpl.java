@@ -5,21 +5,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.gmaking.character.dao.CharacterDAO;
 import com.project.gmaking.character.vo.CharacterVO;
 import com.project.gmaking.notification.facade.NotificationFacade;
-import com.project.gmaking.pve.dao.TurnLogDAO;
+import com.project.gmaking.pve.service.BattleNoteBank;
 import com.project.gmaking.pve.service.OpenAIService;
+import com.project.gmaking.pve.service.TurnLogWriteBuffer;
 import com.project.gmaking.pve.vo.TurnLogVO;
 import com.project.gmaking.pve.vo.BattleLogVO;
 import com.project.gmaking.pvp.dao.PvpBattleDAO;
 import com.project.gmaking.pvp.vo.PvpBattleVO;
 import com.project.gmaking.quest.service.QuestService;
+import com.project.gmaking.ranking.dao.RankingStatDAO;
+import com.project.gmaking.ranking.service.RankingBoards;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -28,22 +34,41 @@ public class PvpBattleServiceImpl implements PvpBattleService{
 
     private final PvpBattleDAO pvpBattleDAO;
     private final CharacterDAO characterDAO;
-    private final TurnLogDAO turnLogDAO;
+    private final TurnLogWriteBuffer turnLogBuffer;
     private final ObjectMapper mapper;
     private final OpenAIService openAIService;
+    private final BattleNoteBank noteBank;
+    private final SimpMessagingTemplate messagingTemplate;
     private final QuestService questService;
 
     // 알림 파사드 주입
     private final NotificationFacade notificationFacade;
 
-    // 메모리 캐시용
-    private final List<PvpBattleVO> activeBattles = new ArrayList<>();
+    // 진행 중 전투 저장소 (pvp.battle-store.type)
+    private final ActiveBattleStore activeBattleStore;
+    private final PvpMatchmakingIndex matchmakingIndex;
+    private final RankingBoards rankingBoards;
+    private final RankingStatDAO rankingStatDAO;
+    private final TransactionTemplate txTemplate;
+
+    // 해설 대기 상한 (넘으면 로컬 문구로 대체)
+    @Value("${pvp.commentary.timeout-ms:8000}")
+    private long commentaryTimeoutMs;
 
     @Override
     public String findRandomOpponent(String userId) {
         return pvpBattleDAO.findRandomOpponent(userId);
     }
 
+    // 전투력 band 매칭, 인덱스에 내 캐릭터가 없으면 기존 랜덤 매칭
+    @Override
+    public PvpMatchmakingIndex.Match findOpponent(String userId, Integer characterId) {
+        PvpMatchmakingIndex.Match match = matchmakingIndex.findOpponent(userId, characterId);
+        if (match != null) return match;
+        String opponentId = findRandomOpponent(userId);
+        return opponentId == null ? null : new PvpMatchmakingIndex.Match(opponentId, null, 0, 0);
+    }
+
     @Override
     public List<CharacterVO> getOpponentCharacters(String opponentId) {
         return characterDAO.selectCharactersByUser(opponentId);
@@ -75,18 +100,33 @@ public class PvpBattleServiceImpl implements PvpBattleService{
         pvpBattleDAO.insertBattleLog(battleLog); // MyBatis에서 useGeneratedKeys=true로 BATTLE_ID 반환
         battle.setBattleId(battleLog.getBattleId()); // DB에서 생성된 ID 사용
 
-        // 메모리 캐시에도 저장 (테스트용)
-        activeBattles.add(battle);
+        activeBattleStore.save(battle);
+        matchmakingIndex.clearSearch(me.getUserId());
 
         return battle;
     }
 
     // battleId로 전투 상태 조회 (컨트롤러에서 사용)
     public PvpBattleVO getBattleById(Integer battleId) {
-        return activeBattles.stream()
-                .filter(b -> b.getBattleId().equals(battleId))
-                .findFirst()
-                .orElse(null);
+        return activeBattleStore.find(battleId);
+    }
+
+    // 전투별 잠금 안에서 턴 진행 (같은 전투의 동시 /turn 요청이 데미지를 두 번 적용하지 않도록)
+    @Override
+    public PvpBattleVO playTurn(Integer battleId, String myCommand) {
+        boolean[] finished = {false};
+        PvpBattleVO battle = activeBattleStore.update(battleId, b -> {
+            if (b.isBattleOver()) {
+                b.setEnemyCommand(""); // 중앙 표시 초기화
+                return b;
+            }
+            processTurn(b, myCommand);
+            finished[0] = b.isBattleOver();
+            return b;
+        });
+        // 이번 요청에서 끝난 경우에만 최종 결과 저장
+        if (battle != null && finished[0]) endBattle(battle);
+        return battle;
     }
 
     // 한글 커맨드 정의
@@ -164,49 +204,25 @@ public class PvpBattleServiceImpl implements PvpBattleService{
         gptData.put("command3", myCommand);
         gptData.put("command4", enemyCommand);
 
-        // 비동기 GPT 호출
-        CompletableFuture<String> gptNoteFuture = openAIService.requestGPTPvpNote(gptData);
-        String gptLog = "";
-        String finalLog = "";
-
-        try {
-            String gptNoteJson = gptNoteFuture.get();
-
-            // JSON 문자열 정리: 코드 블록 마크다운과 서문 제거 (가장 중요!)
-            String cleanJson = gptNoteJson
-                    .replaceAll("```json", "") // 마크다운 시작 태그 제거
-                    .replaceAll("```", "")      // 마크다운 끝 태그 및 일반 코드 블록 마크다운 제거
-                    .trim();                    // 앞뒤 공백 및 줄바꿈 제거
-
-            // 파싱 시도 (cleanJson 사용)
-            JsonNode rootNode = mapper.readTree(cleanJson);
-            gptLog = rootNode.path("note").asText();
-
-            if (gptLog.isEmpty()) {
-                // 'note' 필드가 없거나 비어있는 경우
-                gptLog = "[GPT 해설 실패: note 필드 없음/비어있음] 원본: " + gptNoteJson;
-            }
-
-            // 최종 로그 결합: 서버 결과 + GPT 해설
-            finalLog = resultLog + "\n" + gptLog + "\n";
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            finalLog = resultLog + " | 해설: [GPT 통신 오류: 스레드 중단]";
-        } catch (ExecutionException e) {
-            finalLog = resultLog + " | 해설: [GPT 통신 오류: 실행 예외] " + e.getCause().getMessage();
-        } catch (Exception e) {
-            // 이 부분이 JSON 파싱 오류를 잡는 곳입니다.
-            finalLog = resultLog + " | 해설: [JSON 파싱 오류] 원본 응답 확인 필요";
+        // 해설을 기다리지 않고 바로 응답. 해설이 이미 준비돼 있으면(뱅크 문구) 그대로 붙이고,
+        // 아니면 서버 결과만 먼저 보여준 뒤 도착하면 /topic/pvp/{battleId} 로 push
+        Integer battleId = battle.getBattleId();
+        int turnNo = battle.getTurn();
+        CompletableFuture<String> noteFuture = openAIService.requestGPTPvpNote(gptData)
+                .completeOnTimeout(null, commentaryTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((json, ex) -> commentaryOf(json, ex, gptData));
+
+        String readyNote = noteFuture.getNow(null);
+        if (readyNote != null) {
+            String finalLog = resultLog + "\n" + readyNote + "\n";
+            turnLogBuffer.append(new TurnLogVO(null, battleId, turnNo, finalLog, LocalDateTime.now()));
+            battle.getLogs().add(finalLog);
+        } else {
+            // 프론트용 누적 로그 (해설 도착 시 같은 자리를 교체)
+            battle.getLogs().add(resultLog);
+            noteFuture.thenAcceptAsync(note -> deliverCommentary(battleId, turnNo, resultLog, note));
         }
 
-        // 3단계: 로그 저장 및 업데이트
-        // DB에는 최종 결합 로그만 저장
-        turnLogDAO.insertTurnLog(new TurnLogVO(null, battle.getBattleId(), battle.getTurn(), finalLog, LocalDateTime.now()));
-
-        // 프론트용 누적 로그
-        battle.getLogs().add(finalLog);
-
         // 종료 체크
         if (battle.getPlayerHp() <= 0 || battle.getEnemyHp() <= 0) {
             battle.setBattleOver(true);
@@ -218,6 +234,45 @@ public class PvpBattleServiceImpl implements PvpBattleService{
     }
 
 
+    // GPT 응답(JSON) → note, 실패/시간 초과면 로컬 문구
+    private String commentaryOf(String gptNoteJson, Throwable ex, Map<String, Object> gptData) {
+        if (ex == null && gptNoteJson != null) {
+            try {
+                // JSON 문자열 정리: 코드 블록 마크다운과 서문 제거
+                String cleanJson = gptNoteJson
+                        .replaceAll("```json", "")
+                        .replaceAll("```", "")
+                        .trim();
+                String note = mapper.readTree(cleanJson).path("note").asText();
+                if (!note.isEmpty()) return note;
+            } catch (Exception e) {
+                log.warn("[PVP 해설 파싱 실패] 원본: {}", gptNoteJson);
+            }
+        } else if (ex != null) {
+            log.warn("[PVP 해설 실패] {}", ex.toString());
+        }
+        return noteBank.pvpNote(gptData).orElse("두 사람의 공방이 숨 가쁘게 이어진다.");
+    }
+
+    // 늦게 도착한 해설: 턴 로그 저장 + 진행 중 전투 로그 교체 + 구독자에게 push
+    private void deliverCommentary(Integer battleId, int turnNo, String resultLog, String note) {
+        String finalLog = resultLog + "\n" + note + "\n";
+        turnLogBuffer.append(new TurnLogVO(null, battleId, turnNo, finalLog, LocalDateTime.now()));
+
+        PvpBattleVO battle = activeBattleStore.update(battleId, b -> {
+            if (b.getLogs() != null && b.getLogs().size() >= turnNo) b.getLogs().set(turnNo - 1, finalLog);
+            return b;
+        });
+        // 이미 끝난 전투면 endBattle 의 flush 이후라 바로 기록
+        if (battle == null) turnLogBuffer.flush(battleId);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("battleId", battleId);
+        payload.put("turn", turnNo);
+        payload.put("log", finalLog);
+        messagingTemplate.convertAndSend("/topic/pvp/" + battleId, payload);
+    }
+
     // 전투 종료
     @Override
     public void endBattle(PvpBattleVO result) {
@@ -238,7 +293,14 @@ public class PvpBattleServiceImpl implements PvpBattleService{
                 null,
                 result.getLogs()
         );
-        pvpBattleDAO.updateBattleLogResult(battleLog);
+        // 결과와 랭킹 집계(TB_CHARACTER_RANKING_STAT)는 한 트랜잭션으로
+        txTemplate.executeWithoutResult(status -> {
+            pvpBattleDAO.updateBattleLogResult(battleLog);
+            rankingStatDAO.addPvpResult(result.getPlayer().getCharacterId(), isWin);
+        });
+        matchmakingIndex.recordResult(result.getPlayer().getCharacterId(), result.getEnemy().getCharacterId(), isWin);
+        if (isWin) rankingBoards.onPvpWin(result.getPlayer().getCharacterId());
+        turnLogBuffer.flush(result.getBattleId());
 
         String userId = (result.getPlayer() != null) ? result.getPlayer().getUserId() : null;
 
@@ -251,8 +313,8 @@ public class PvpBattleServiceImpl implements PvpBattleService{
         // 알림 발송 (양측)
         sendPvpResultNotifications(result, isWin);
 
-        // 3.  메모리 캐시에서 배틀 제거
-        activeBattles.removeIf(b -> b.getBattleId().equals(result.getBattleId()));
+        // 3. 진행 중 전투 저장소에서 제거
+        activeBattleStore.remove(result.getBattleId());
     }
 
     // 전투 종료 알림
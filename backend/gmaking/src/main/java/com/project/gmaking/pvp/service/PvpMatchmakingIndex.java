@@ -0,0 +1,250 @@
+package com.project.gmaking.pvp.service;
+
+import com.project.gmaking.common.TxCallbacks;
+import com.project.gmaking.pve.vo.BattleLogVO;
+import com.project.gmaking.pvp.dao.PvpBattleDAO;
+import com.project.gmaking.pvp.vo.PvpMatchCandidateVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * PVP 매칭 인덱스 (메모리).
+ * 캐릭터마다 전투력 = Elo(TB_BATTLE_LOG 의 PVP 결과로 계산) + stat-weight × 능력치 합 을 두고
+ * 전투력 순 정렬 집합에서 "내 전투력 ± band" 안의 상대를 O(log n + k) 로 찾는다.
+ * band 는 같은 유저가 매칭을 다시 누를수록(대기 시간) 넓어지고, 최대치에서도 없으면 가장 가까운 상대.
+ * - 전투 종료: recordResult 로 양쪽 Elo 갱신
+ * - 캐릭터 생성/삭제: upsert / remove
+ * - 누락 보정용으로 주기적으로 전체 재적재
+ *   (DB 를 읽는 동안 위 갱신이 들어오면 그 결과를 덮어쓰지 않도록 교체를 건너뛰고 다시 시도)
+ */
+@Slf4j
+@Component
+public class PvpMatchmakingIndex {
+
+    /** 매칭 결과 (characterId 는 band 안에서 고른 상대 캐릭터) */
+    public record Match(String userId, Integer characterId, double power, double band) {}
+
+    private record Entry(int characterId, String userId, int totalStats, double elo, double power) {}
+
+    private static final Comparator<Entry> BY_POWER =
+            Comparator.comparingDouble(Entry::power).thenComparingInt(Entry::characterId);
+
+    private final PvpBattleDAO pvpBattleDAO;
+
+    private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<Entry> byPower = new ConcurrentSkipListSet<>(BY_POWER);
+    private final Map<String, Set<Integer>> byUser = new ConcurrentHashMap<>();
+    /** userId → 첫 매칭 요청 시각 (band 확장 기준) */
+    private final Map<String, Long> searchStartedAt = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    /** recordResult / upsert / remove 로 인덱스가 바뀔 때마다 증가 (synchronized 안에서만 접근) */
+    private long writeVersion;
+
+    /** 재적재 중 갱신이 겹쳤을 때 다시 읽는 횟수 (모두 겹치면 이번 재적재는 건너뜀) */
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    @Value("${pvp.matchmaking.initial-rating:1000}")
+    private double initialRating;
+    @Value("${pvp.matchmaking.k-factor:32}")
+    private double kFactor;
+    @Value("${pvp.matchmaking.stat-weight:1.0}")
+    private double statWeight;
+    @Value("${pvp.matchmaking.base-band:150}")
+    private double baseBand;
+    @Value("${pvp.matchmaking.widen-per-second:25}")
+    private double widenPerSecond;
+    @Value("${pvp.matchmaking.max-band:600}")
+    private double maxBand;
+    /** band 안에서 무작위로 고를 후보 수 (항상 같은 상대만 나오지 않게) */
+    @Value("${pvp.matchmaking.sample-size:8}")
+    private int sampleSize;
+    /** 이 시간 동안 다시 매칭하지 않으면 대기 시간 초기화 */
+    @Value("${pvp.matchmaking.search-ttl-ms:300000}")
+    private long searchTtlMs;
+
+    public PvpMatchmakingIndex(PvpBattleDAO pvpBattleDAO) {
+        this.pvpBattleDAO = pvpBattleDAO;
+    }
+
+    /**
+     * characterId(내 캐릭터) 기준 상대 찾기. 없으면 내 캐릭터 중 전투력이 가장 높은 캐릭터 기준.
+     * 인덱스에 내 캐릭터가 없거나 band 안에 상대가 없으면 null.
+     */
+    public Match findOpponent(String userId, Integer characterId) {
+        ensureLoaded();
+        Entry me = characterId != null ? byId.get(characterId) : null;
+        if (me == null || !me.userId().equals(userId)) me = strongestOf(userId);
+        if (me == null) return null;
+
+        long now = System.currentTimeMillis();
+        long started = searchStartedAt.compute(userId, (k, v) -> v == null || now - v > searchTtlMs ? now : v);
+        double band = Math.min(maxBand, baseBand + widenPerSecond * (now - started) / 1000.0);
+
+        List<Entry> candidates = nearest(me, band, sampleSize);
+        if (candidates.isEmpty() && band >= maxBand) candidates = nearest(me, Double.MAX_VALUE, 1);
+        if (candidates.isEmpty()) return null;
+
+        Entry picked = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+        return new Match(picked.userId(), picked.characterId(), picked.power(), band);
+    }
+
+    /** 전투 시작 시 대기 시간 초기화 */
+    public void clearSearch(String userId) {
+        if (userId != null) searchStartedAt.remove(userId);
+    }
+
+    /** PVP 전투 결과 반영 (Elo) */
+    public synchronized void recordResult(Integer characterId, Integer opponentId, boolean win) {
+        if (!loaded) return; // 첫 적재 때 DB 에서 함께 계산됨
+        Entry a = byId.get(characterId);
+        Entry b = byId.get(opponentId);
+        if (a == null || b == null) return;
+        double expected = 1.0 / (1.0 + Math.pow(10, (b.elo() - a.elo()) / 400.0));
+        double delta = kFactor * ((win ? 1.0 : 0.0) - expected);
+        put(a.characterId(), a.userId(), a.totalStats(), a.elo() + delta);
+        put(b.characterId(), b.userId(), b.totalStats(), b.elo() - delta);
+        writeVersion++;
+    }
+
+    /** 캐릭터 생성/능력치 변경 (트랜잭션 중이면 커밋 후 반영, Elo 는 유지) */
+    public void upsert(Integer characterId, String userId, int totalStats) {
+        TxCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                if (!loaded) return;
+                Entry old = byId.get(characterId);
+                put(characterId, userId, totalStats, old != null ? old.elo() : initialRating);
+                writeVersion++;
+            }
+        });
+    }
+
+    public void remove(Integer characterId) {
+        TxCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                Entry old = byId.remove(characterId);
+                if (old == null) return;
+                byPower.remove(old);
+                Set<Integer> ids = byUser.get(old.userId());
+                if (ids != null) ids.remove(characterId);
+                writeVersion++;
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${pvp.matchmaking.rebuild-interval-ms:1800000}",
+            fixedDelayString = "${pvp.matchmaking.rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        for (int attempt = 1; ; attempt++) {
+            long version;
+            boolean first;
+            synchronized (this) {
+                version = writeVersion;
+                first = !loaded; // 첫 적재 전에는 갱신이 무시되므로 겹쳐도 그대로 교체
+            }
+
+            List<PvpMatchCandidateVO> characters = pvpBattleDAO.selectMatchCandidates();
+            Map<Integer, Double> elo = new HashMap<>();
+            for (BattleLogVO r : pvpBattleDAO.selectPvpResults()) {
+                double ra = elo.getOrDefault(r.getCharacterId(), initialRating);
+                double rb = elo.getOrDefault(r.getOpponentId(), initialRating);
+                double expected = 1.0 / (1.0 + Math.pow(10, (rb - ra) / 400.0));
+                double delta = kFactor * (("Y".equals(r.getIsWin()) ? 1.0 : 0.0) - expected);
+                elo.put(r.getCharacterId(), ra + delta);
+                elo.put(r.getOpponentId(), rb - delta);
+            }
+
+            synchronized (this) {
+                // 읽는 동안 반영된 결과는 DB 조회에 들어갔는지 알 수 없어서 재생하지 않고 다시 읽는다
+                if (first || writeVersion == version) {
+                    byId.clear();
+                    byPower.clear();
+                    byUser.clear();
+                    for (PvpMatchCandidateVO c : characters) {
+                        put(c.getCharacterId(), c.getUserId(),
+                                c.getTotalStats() != null ? c.getTotalStats() : 0,
+                                elo.getOrDefault(c.getCharacterId(), initialRating));
+                    }
+                    loaded = true;
+                    log.info("[PVP] matchmaking index rebuilt: characters={}, rated={}", characters.size(), elo.size());
+                    return;
+                }
+            }
+            if (attempt >= REBUILD_ATTEMPTS) {
+                log.info("[PVP] matchmaking rebuild skipped: concurrent updates during {} attempts", attempt);
+                return;
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            rebuild();
+        }
+    }
+
+    // synchronized 안에서만 호출
+    private void put(int characterId, String userId, int totalStats, double elo) {
+        Entry old = byId.get(characterId);
+        if (old != null) byPower.remove(old);
+        Entry e = new Entry(characterId, userId, totalStats, elo, elo + statWeight * totalStats);
+        byId.put(characterId, e);
+        byPower.add(e);
+        byUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(characterId);
+    }
+
+    private Entry strongestOf(String userId) {
+        Entry best = null;
+        for (Integer id : byUser.getOrDefault(userId, Set.of())) {
+            Entry e = byId.get(id);
+            if (e != null && (best == null || e.power() > best.power())) best = e;
+        }
+        return best;
+    }
+
+    /** me 에서 가까운 순으로 양쪽을 번갈아 보며 다른 유저 캐릭터를 limit 개까지 */
+    private List<Entry> nearest(Entry me, double band, int limit) {
+        Iterator<Entry> up = byPower.tailSet(me, false).iterator();
+        Iterator<Entry> down = byPower.headSet(me, false).descendingIterator();
+        Entry nextUp = advance(up, me.userId());
+        Entry nextDown = advance(down, me.userId());
+
+        List<Entry> out = new ArrayList<>(limit);
+        while (out.size() < limit && (nextUp != null || nextDown != null)) {
+            double du = nextUp != null ? nextUp.power() - me.power() : Double.MAX_VALUE;
+            double dd = nextDown != null ? me.power() - nextDown.power() : Double.MAX_VALUE;
+            if (Math.min(du, dd) > band) break;
+            if (du <= dd) {
+                out.add(nextUp);
+                nextUp = advance(up, me.userId());
+            } else {
+                out.add(nextDown);
+                nextDown = advance(down, me.userId());
+            }
+        }
+        return out;
+    }
+
+    private static Entry advance(Iterator<Entry> it, String excludeUserId) {
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (!excludeUserId.equals(e.userId())) return e;
+        }
+        return null;
+    }
+}
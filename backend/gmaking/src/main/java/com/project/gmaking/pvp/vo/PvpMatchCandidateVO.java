@@ -0,0 +1,15 @@
+package com.project.gmaking.pvp.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** 매칭 인덱스 적재용 캐릭터 (tb_character + tb_character_stat 능력치 합) */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PvpMatchCandidateVO {
+    private Integer characterId;
+    private String userId;
+    private Integer totalStats;
+}
@@ -0,0 +1,120 @@
+package com.project.gmaking.rag;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.project.gmaking.rag.GuideDtos.AskResponse;
+
+/**
+ * 가이드봇 반복 질문 캐시.
+ * - 질문 임베딩: 정규화된 질문 → 벡터
+ * - 최종 답변: 정규화된 질문 + 검색된 청크 집합 → AskResponse
+ * 둘 다 TTL + 최대 개수(LRU) 제한. GuidesIndexer 재적재 시 clear().
+ */
+@Component
+public class GuideCache {
+
+    private final TtlLru<String, float[]> embeddings;
+    private final TtlLru<String, AskResponse> answers;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public GuideCache(RagProperties props) {
+        long ttlMs = Math.max(0, props.getCacheTtlSeconds()) * 1000L;
+        int max = Math.max(0, props.getCacheMaxEntries());
+        this.embeddings = new TtlLru<>(max, ttlMs);
+        this.answers = new TtlLru<>(max, ttlMs);
+    }
+
+    /** 공백/대소문자/끝 문장부호 차이는 같은 질문으로 본다 */
+    public static String normalize(String question) {
+        if (question == null) return "";
+        String s = question.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return s.replaceAll("[\\s?!.~…。？！]+$", "");
+    }
+
+    /** 답변 캐시 키: 질문 + 검색된 청크(doc#idx) 정렬 목록 */
+    public static String answerKey(String normalizedQuestion, Collection<MysqlRetriever.RetrievedChunk> chunks) {
+        String ids = chunks.stream()
+                .map(c -> c.docPath() + "#" + c.chunkIndex())
+                .sorted()
+                .collect(Collectors.joining(","));
+        return normalizedQuestion + "|" + ids;
+    }
+
+    public float[] getEmbedding(String normalizedQuestion) {
+        return count(embeddings.get(normalizedQuestion));
+    }
+
+    public void putEmbedding(String normalizedQuestion, float[] vector) {
+        embeddings.put(normalizedQuestion, vector);
+    }
+
+    public AskResponse getAnswer(String key) {
+        return count(answers.get(key));
+    }
+
+    public void putAnswer(String key, AskResponse resp) {
+        answers.put(key, resp);
+    }
+
+    /** 가이드 재적재 시 전체 무효화 */
+    public void clear() {
+        embeddings.clear();
+        answers.clear();
+        System.out.println("[RAG] Guide cache cleared (hits=" + hits.get() + ", misses=" + misses.get() + ")");
+    }
+
+    private <T> T count(T v) {
+        (v == null ? misses : hits).incrementAndGet();
+        return v;
+    }
+
+    // ---------- TTL + LRU map ----------
+
+    private static final class TtlLru<K, V> {
+        private final int maxEntries;
+        private final long ttlMs;
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        TtlLru(int maxEntries, long ttlMs) {
+            this.maxEntries = maxEntries;
+            this.ttlMs = ttlMs;
+            // accessOrder=true → 가장 오래 안 쓴 항목부터 제거
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > TtlLru.this.maxEntries;
+                }
+            };
+        }
+
+        synchronized V get(K key) {
+            Entry<V> e = map.get(key);
+            if (e == null) return null;
+            if (e.expiresAt < System.currentTimeMillis()) {
+                map.remove(key);
+                return null;
+            }
+            return e.value;
+        }
+
+        synchronized void put(K key, V value) {
+            if (maxEntries == 0 || ttlMs == 0 || value == null) return;
+            map.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMs));
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
@@ -4,6 +4,8 @@ package com.project.gmaking.rag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 import static com.project.gmaking.rag.GuideDtos.*;
 
 @RestController
@@ -11,12 +13,28 @@ import static com.project.gmaking.rag.GuideDtos.*;
 public class GuideController {
 
     private final GuideService service;
+    private final GuidesIndexer indexer;
+    private final GuideVectorIndex index;
 
-    public GuideController(GuideService service) { this.service = service; }
+    public GuideController(GuideService service, GuidesIndexer indexer, GuideVectorIndex index) {
+        this.service = service;
+        this.indexer = indexer;
+        this.index = index;
+    }
 
     @PostMapping("/ask")
     public ResponseEntity<AskResponse> ask(@RequestBody AskRequest req) {
         AskResponse resp = service.ask(req.getQuestion());
         return ResponseEntity.ok(resp);
     }
+
+    /** 인덱싱 준비 상태 (진행 중이면 ready=false, 실패하면 ready=false + failed=true) */
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(Map.of(
+                "ready", indexer.isReady(),
+                "failed", indexer.isFailed(),
+                "chunks", index.size()
+        ));
+    }
 }
@@ -15,11 +15,16 @@ public class GuideService {
     private final ChatLanguageModel chat;
     private final MysqlRetriever retriever;
     private final RagProperties props;
+    private final GuideCache cache;
+    private final GuidesIndexer indexer;
 
-    public GuideService(ChatLanguageModel chat, MysqlRetriever retriever, RagProperties props) {
+    public GuideService(ChatLanguageModel chat, MysqlRetriever retriever, RagProperties props,
+                        GuideCache cache, GuidesIndexer indexer) {
         this.chat = chat;
         this.retriever = retriever;
         this.props = props;
+        this.cache = cache;
+        this.indexer = indexer;
     }
 
     public AskResponse ask(String question) {
@@ -29,6 +34,19 @@ public class GuideService {
         question = question.trim();
 
         var top = retriever.topK(question, props.getTopK());
+        if (top.isEmpty() && indexer.isFailed()) {
+            return new AskResponse("가이드를 불러오지 못했어요. 잠시 후 다시 시도해 주세요.");
+        }
+        if (top.isEmpty() && !indexer.isReady()) {
+            return new AskResponse("가이드를 준비하고 있어요. 잠시 후 다시 질문해 주세요.");
+        }
+
+        // 같은 질문 + 같은 청크 집합이면 이전 답변 재사용 (LLM 호출 생략)
+        String cacheKey = GuideCache.answerKey(GuideCache.normalize(question), top);
+        AskResponse cached = cache.getAnswer(cacheKey);
+        if (cached != null) {
+            return new AskResponse(cached.getAnswer(), cached.getSources());
+        }
 
         // 컨텍스트 구성
         String context = top.stream()
@@ -72,6 +90,8 @@ public class GuideService {
                 .toList();
 
         // '참고:' 꼬리표 붙이지 않고 그대로 반환
-        return new AskResponse(answer, sources);
+        AskResponse resp = new AskResponse(answer, sources);
+        cache.putAnswer(cacheKey, resp);
+        return resp;
     }
 }
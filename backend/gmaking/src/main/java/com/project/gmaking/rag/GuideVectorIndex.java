@@ -0,0 +1,218 @@
+package com.project.gmaking.rag;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * tb_rag_embedding_chunk 전체를 메모리에 올려두는 상주 벡터 인덱스.
+ * - 벡터는 SimilarityEngine 에 정규화(+int8 양자화)해서 보관 (점수 = 내적)
+ * - front-matter 메타는 적재 시 한 번만 파싱해서 청크별로 보강해 둠
+ * - 상위 K는 크기 K짜리 최소 힙으로 선택 (전체 정렬 X)
+ * - hybrid=true 면 청크 본문 BM25(LexicalIndex) 순위와 벡터 순위를 RRF 로 합산
+ * GuidesIndexer가 upsert 하면 reload()로 스냅샷을 통째로 교체한다.
+ */
+@Component
+public class GuideVectorIndex {
+
+    private final RagEmbeddingDao ragDao;
+    private final RagProperties props;
+
+    /** 현재 스냅샷 (읽기는 락 없이, 교체는 reload에서 원자적으로) */
+    private volatile Snapshot snapshot;
+
+    public GuideVectorIndex(RagEmbeddingDao ragDao, RagProperties props) {
+        this.ragDao = ragDao;
+        this.props = props;
+    }
+
+    /** DB에서 전체 청크를 다시 읽어 스냅샷 교체 */
+    public synchronized void reload() {
+        List<RagChunkVO> rows = ragDao.selectAll();
+        this.snapshot = Snapshot.build(rows, props.isInt8Search(), props.getRescoreFactor(),
+                VectorKernels.get(props.getVectorKernel()));
+        System.out.println("[RAG] Vector index loaded: chunks=" + snapshot.size + ", dim=" + snapshot.dim
+                + ", int8=" + snapshot.engine.isQuantized() + ", kernel=" + snapshot.engine.kernel().name());
+    }
+
+    /** 적재된 청크 수 (아직 적재 전이면 0) */
+    public int size() {
+        Snapshot s = snapshot;
+        return s == null ? 0 : s.size;
+    }
+
+    /** 질의(본문 + 벡터)로 상위 K 청크 검색 */
+    public List<MysqlRetriever.RetrievedChunk> search(String queryText, float[] query, int k) {
+        Snapshot s = current();
+        if (s.size == 0 || k <= 0 || query == null) return List.of();
+
+        SimilarityEngine.Query q = s.engine.prepare(query);
+        int[] top = props.isHybrid() && queryText != null
+                ? hybridTopK(s, q, queryText, k)
+                : s.engine.topK(q, k);
+
+        List<MysqlRetriever.RetrievedChunk> out = new ArrayList<>(top.length);
+        for (int idx : top) {
+            out.add(s.chunk(idx, s.engine.score(q, idx)));
+        }
+        return out;
+    }
+
+    /**
+     * 벡터 상위 N + BM25 상위 N 을 Reciprocal Rank Fusion 으로 합산.
+     * score(row) = Σ 1 / (rrfK + rank), rank 는 1부터.
+     */
+    private int[] hybridTopK(Snapshot s, SimilarityEngine.Query q, String queryText, int k) {
+        int n = Math.max(k, props.getHybridCandidates());
+        int[] vec = s.engine.topK(q, n);
+        int[] lex = s.lexical.topN(queryText, n);
+        if (lex.length == 0) return Arrays.copyOf(vec, Math.min(k, vec.length));
+
+        int rrfK = Math.max(1, props.getRrfK());
+        Map<Integer, Float> fused = new HashMap<>();
+        for (int r = 0; r < vec.length; r++) fused.merge(vec[r], 1f / (rrfK + r + 1), Float::sum);
+        for (int r = 0; r < lex.length; r++) fused.merge(lex[r], 1f / (rrfK + r + 1), Float::sum);
+
+        SimilarityEngine.TopHeap top = new SimilarityEngine.TopHeap(Math.min(k, fused.size()));
+        for (var e : fused.entrySet()) top.offer(e.getKey(), e.getValue());
+        return top.drainDescending();
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) reload();
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    // ---------- snapshot ----------
+
+    private static final class Snapshot {
+        final int size;
+        final int dim;
+        /** 정규화 벡터 행렬 (행 번호 = 아래 배열 인덱스) */
+        final SimilarityEngine engine;
+        /** 청크 본문 BM25 역색인 (build 마지막에 생성) */
+        LexicalIndex lexical;
+        final String[] texts;
+        final String[] docPaths;
+        final int[] chunkIndexes;
+        final String[] guideKeys;
+        final String[] docUrls;
+        final String[] appUrls;
+
+        private Snapshot(int size, int dim, boolean int8, int rescoreFactor, VectorKernel kernel) {
+            this.size = size;
+            this.dim = dim;
+            this.engine = new SimilarityEngine(size, dim, int8, rescoreFactor, kernel);
+            this.texts = new String[size];
+            this.docPaths = new String[size];
+            this.chunkIndexes = new int[size];
+            this.guideKeys = new String[size];
+            this.docUrls = new String[size];
+            this.appUrls = new String[size];
+        }
+
+        static Snapshot build(List<RagChunkVO> rows, boolean int8, int rescoreFactor, VectorKernel kernel) {
+            // 차원이 다른(깨진) 행은 제외: 가장 먼저 나온 정상 벡터의 차원을 기준으로
+            int dim = 0;
+            List<RagChunkVO> valid = new ArrayList<>(rows.size());
+            for (RagChunkVO r : rows) {
+                if (r.getVector() == null || r.getVector().length < 4) continue;
+                int d = r.getVector().length / 4;
+                if (dim == 0) dim = d;
+                if (d == dim) valid.add(r);
+            }
+
+            Snapshot s = new Snapshot(valid.size(), dim, int8, rescoreFactor, kernel);
+
+            // 1) 문서 단위 대표 메타 (front-matter 가진 첫 청크)
+            Map<String, Meta> docMeta = new HashMap<>();
+            Meta[] own = new Meta[valid.size()];
+            for (int i = 0; i < valid.size(); i++) {
+                RagChunkVO r = valid.get(i);
+                own[i] = parseFrontMatter(r.getText());
+                if (own[i].hasAny()) docMeta.putIfAbsent(r.getDocPath(), own[i]);
+            }
+
+            // 2) 벡터 정규화/양자화 + 메타 보강
+            for (int i = 0; i < valid.size(); i++) {
+                RagChunkVO r = valid.get(i);
+                s.engine.set(i, VectorIO.toFloatArray(r.getVector()));
+
+                s.texts[i] = r.getText();
+                s.docPaths[i] = r.getDocPath();
+                s.chunkIndexes[i] = r.getChunkIndex() == null ? 0 : r.getChunkIndex();
+
+                Meta m = docMeta.getOrDefault(r.getDocPath(), inferFromPath(r.getDocPath()));
+                s.guideKeys[i] = firstNonBlank(own[i].guideKey, m.guideKey);
+                s.docUrls[i]   = firstNonBlank(own[i].docUrl,   m.docUrl);
+                s.appUrls[i]   = firstNonBlank(own[i].appUrl,   m.appUrl);
+            }
+
+            // 3) 본문 역색인
+            s.lexical = new LexicalIndex(s.texts);
+            return s;
+        }
+
+        MysqlRetriever.RetrievedChunk chunk(int i, double score) {
+            return new MysqlRetriever.RetrievedChunk(
+                    texts[i], docPaths[i], chunkIndexes[i], score,
+                    guideKeys[i], docUrls[i], appUrls[i]
+            );
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private static class Meta {
+        final String guideKey, docUrl, appUrl;
+        Meta(String g, String d, String a) { this.guideKey = g; this.docUrl = d; this.appUrl = a; }
+        boolean hasAny() { return isNotBlank(guideKey) || isNotBlank(docUrl) || isNotBlank(appUrl); }
+    }
+
+    // front-matter 정규식
+    private static final Pattern RE_GUIDE_KEY = Pattern.compile("(?im)^\\s*guide_key\\s*:\\s*([A-Za-z0-9_-]+)\\s*$");
+    private static final Pattern RE_DOC_URL   = Pattern.compile("(?im)^\\s*doc_url\\s*:\\s*(\\S+)\\s*$");
+    private static final Pattern RE_APP_URL   = Pattern.compile("(?im)^\\s*app_url\\s*:\\s*(\\S+)\\s*$");
+
+    private static Meta parseFrontMatter(String text) {
+        if (text == null) return new Meta(null, null, null);
+        String gk = findOne(RE_GUIDE_KEY, text);
+        String du = findOne(RE_DOC_URL, text);
+        String au = findOne(RE_APP_URL, text);
+        return new Meta(gk, du, au);
+    }
+
+    // 문서 경로로 대략 추론(메타가 전혀 없을 때 대비)
+    private static Meta inferFromPath(String path) {
+        if (path == null) return new Meta(null, null, null);
+        String p = path.toLowerCase(Locale.ROOT);
+        if (p.contains("character") && p.contains("create")) {
+            return new Meta("characterCreate", "/guide/character/create", "http://localhost:3000/create-character");
+        }
+        if (p.endsWith("chat.md") || p.contains("/chat")) {
+            return new Meta("chat", "/guide/chat", "http://localhost:3000/chat-entry");
+        }
+        return new Meta(null, null, null);
+    }
+
+    private static String findOne(Pattern re, String s) {
+        Matcher m = re.matcher(s);
+        return m.find() ? m.group(1) : null;
+    }
+
+    private static boolean isNotBlank(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private static String firstNonBlank(String a, String b) {
+        return isNotBlank(a) ? a : (isNotBlank(b) ? b : null);
+    }
+}
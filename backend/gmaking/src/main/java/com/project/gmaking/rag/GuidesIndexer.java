@@ -1,168 +1,301 @@
 package com.project.gmaking.rag;
 
 import dev.langchain4j.data.document.Document;
-import dev.langchain4j.data.document.loader.FileSystemDocumentLoader;
-import dev.langchain4j.data.document.parser.TextDocumentParser;
 import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
-import jakarta.annotation.PostConstruct;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
-import java.util.ArrayList;
-import java.util.List;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * guides/ 아래 마크다운을 청킹/임베딩해서 tb_rag_embedding_chunk 에 동기화.
+ * - 문서 해시가 같으면 건너뜀, 청크 해시가 같으면 기존 벡터 재사용 → 바뀐 청크만 임베딩
+ * - 임베딩 배치는 embedParallelism 개까지 동시에 호출
+ * - 앱 기동 완료 후 백그라운드 스레드에서 실행 (기동을 막지 않음), 성공(또는 생략)하면 ready=true, 실패하면 failed=true
+ * - classpath 리소스는 스트림으로 읽으므로 fat-jar 에서도 동작
+ * - doc_path 는 가이드 디렉터리 기준 상대 경로(guides/xxx.md), URL 인코딩을 풀어서 저장
+ */
 @Component
 public class GuidesIndexer {
 
+    private static final List<String> EXTS = List.of("md", "mdx");
+
     private final RagProperties ragProps;
     private final EmbeddingModel embeddingModel;
     private final RagEmbeddingDao ragDao;
+    private final GuideVectorIndex vectorIndex;
+    private final GuideCache guideCache;
+
+    /** 인덱싱 완료(또는 생략) 여부 */
+    private volatile boolean ready = false;
+    /** 마지막 인덱싱 실패 여부 (ready 와 동시에 true 가 되지 않음) */
+    private volatile boolean failed = false;
 
     public GuidesIndexer(RagProperties ragProps,
                          EmbeddingModel embeddingModel,
-                         RagEmbeddingDao ragDao) {
+                         RagEmbeddingDao ragDao,
+                         GuideVectorIndex vectorIndex,
+                         GuideCache guideCache) {
         this.ragProps = ragProps;
         this.embeddingModel = embeddingModel;
         this.ragDao = ragDao;
+        this.vectorIndex = vectorIndex;
+        this.guideCache = guideCache;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /** 기동 완료 후 백그라운드로 인덱싱 시작 */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startIngestInBackground() {
+        // 🔒 비용 방지: autoIngest=false면 즉시 종료 (DB에 있는 기존 청크로 서비스)
+        if (!ragProps.isAutoIngest()) {
+            System.out.println("[RAG] Skip ingest: app.rag.autoIngest=false");
+            ready = true;
+            return;
+        }
+        Thread t = new Thread(this::ingestGuides, "rag-ingest");
+        t.setDaemon(true);
+        t.start();
     }
 
-    @PostConstruct
-    @Transactional
     public void ingestGuides() {
+        failed = false;
         try {
-            // 🔒 비용 방지: autoIngest=false면 즉시 종료
-            if (!ragProps.isAutoIngest()) {
-                System.out.println("[RAG] Skip ingest: app.rag.autoIngest=false");
-                return;
-            }
-
             String cfg = ragProps.getGuidesDir();
             if (cfg == null || cfg.isBlank()) {
                 System.out.println("[RAG] Skip ingest: app.rag.guidesDir is empty");
+                ready = true;
                 return;
             }
 
-            // === 1) base 경로 결정 (classpath: 또는 파일시스템) ===
-            Path base;
-            if (cfg.startsWith("classpath:")) {
-                String cpDir = cfg.substring("classpath:".length());
-                ClassPathResource cpr = new ClassPathResource(cpDir);
-                if (!cpr.exists()) {
-                    System.out.println("[RAG] Skip ingest: classpath dir not found -> " + cpDir);
-                    return;
-                }
-                // NOTE: fat-jar에서는 getFile() 이 불가할 수 있음(개발/로컬은 OK).
-                base = cpr.getFile().toPath().toAbsolutePath().normalize();
-                System.out.println("[RAG] Using classpath dir -> " + base);
-            } else {
-                base = Path.of(cfg).toAbsolutePath().normalize();
-                System.out.println("[RAG] Using filesystem dir -> " + base);
-            }
-
-            System.out.println("[RAG] Guides path -> exists=" + Files.exists(base)
-                    + ", isDir=" + Files.isDirectory(base)
-                    + ", path=" + base);
+            // === 1) 문서 로드 (classpath: 또는 파일시스템, 확장자 md / mdx) ===
+            List<String> loadFailed = new ArrayList<>();
+            Map<String, String> docs = loadDocs(cfg, loadFailed);
+            System.out.println("[RAG] Loader found " + docs.size() + " docs under " + cfg
+                    + (loadFailed.isEmpty() ? "" : " (" + loadFailed.size() + " failed to load)"));
 
-            if (!Files.isDirectory(base)) {
-                System.out.println("[RAG] Skip ingest: not a directory -> " + base);
+            if (docs.isEmpty() && loadFailed.isEmpty()) {
+                System.out.println("[RAG] No docs to index. Stop.");
+                ready = true;
                 return;
             }
 
-            // 1-depth 자식 목록 디버그
-            try (var s = Files.list(base)) {
-                s.forEach(p -> System.out.println("[RAG] child: " + p.getFileName()));
-            } catch (Exception ignore) {}
-
-            // === 2) 문서 로드 (확장자 필터: md / mdx, 대소문자 모두) ===
-            var parser = new TextDocumentParser();
-            List<Document> docs = collectDocs(base, parser, List.of("md","MD","mdx","MDX"));
-            System.out.println("[RAG] Loader found " + docs.size() + " docs under " + base);
-//            docs.addAll(collectDocsByExt(base, parser, "md"));
-//            docs.addAll(collectDocsByExt(base, parser, "MD"));
-//            docs.addAll(collectDocsByExt(base, parser, "mdx"));
-//            docs.addAll(collectDocsByExt(base, parser, "MDX"));
-
-            if (docs.isEmpty()) {
-                System.out.println("[RAG] No docs to index. Stop.");
-                return;
+            // === 2) 사라진 문서 정리 (이전 절대경로 키 포함) ===
+            // 읽기 실패한 문서가 있으면 사라진 것과 구분할 수 없으므로 이번 실행에선 정리하지 않음
+            boolean changed = false;
+            Set<String> known = new HashSet<>(ragDao.selectDocPaths());
+            Map<String, String> docHashes = ragDao.selectDocHashes();
+            known.addAll(docHashes.keySet());
+            if (!loadFailed.isEmpty()) {
+                System.err.println("[RAG] Skip stale cleanup: failed to load " + loadFailed);
+                known.clear();
+            }
+            for (String stale : known) {
+                if (!docs.containsKey(stale)) {
+                    ragDao.deleteByDocPath(stale);
+                    ragDao.deleteDocHash(stale);
+                    changed = true;
+                    System.out.println("[RAG] Removed stale doc " + stale);
+                }
             }
 
-            // === 3) 청킹 & 임베딩 & 저장 ===
+            // === 3) 문서/청크 해시 비교 → 임베딩 필요한 청크만 추림 ===
             var splitter = DocumentSplitters.recursive(1000, 200);
+            List<DocPlan> plans = new ArrayList<>();
+            List<PendingChunk> toEmbed = new ArrayList<>();
 
-            for (Document doc : docs) {
-                String docPath = doc.metadata().getString("file_path");
-                if (docPath == null) docPath = "unknown";
+            for (var entry : docs.entrySet()) {
+                String docPath = entry.getKey();
+                String text = entry.getValue();
+                String docHash = sha256(text);
+                if (docHash.equals(docHashes.get(docPath))) continue;
 
-                // 기존 문서 삭제(간단 동기화)
-                ragDao.deleteByDocPath(docPath);
+                List<TextSegment> segments = splitter.split(Document.from(text));
+                DocPlan plan = new DocPlan(docPath, docHash, segments.size());
 
-                // 임베딩(여기서부터 비용 발생)
-                List<TextSegment> segments = splitter.split(doc);
-                var embeddings = embeddingModel.embedAll(segments).content();
+                Map<Integer, String> hashByIndex = new HashMap<>();
+                Map<String, byte[]> vectorByHash = new HashMap<>();
+                for (RagChunkVO old : ragDao.selectByDocPath(docPath)) {
+                    if (old.getContentHash() == null) continue;
+                    hashByIndex.put(old.getChunkIndex(), old.getContentHash());
+                    vectorByHash.putIfAbsent(old.getContentHash(), old.getVector());
+                }
 
-                List<RagChunkVO> batch = new ArrayList<>(segments.size());
                 for (int i = 0; i < segments.size(); i++) {
-                    var seg = segments.get(i);
-                    var emb = embeddings.get(i).vector();
+                    String segText = segments.get(i).text();
+                    String h = sha256(segText);
+                    if (h.equals(hashByIndex.get(i))) continue; // 같은 자리, 같은 내용
 
                     RagChunkVO e = new RagChunkVO();
                     e.setDocPath(docPath);
                     e.setChunkIndex(i);
-                    e.setText(seg.text());
-                    e.setVector(VectorIO.toBytes(emb));
-                    batch.add(e);
+                    e.setText(segText);
+                    e.setContentHash(h);
+                    e.setVector(vectorByHash.get(h)); // 자리만 옮긴 청크면 벡터 재사용
+                    plan.writes.add(e);
+                    if (e.getVector() == null) toEmbed.add(new PendingChunk(e, segments.get(i)));
                 }
+                plans.add(plan);
+            }
 
-                ragDao.batchUpsert(batch);
-                System.out.println("[RAG] Upserted chunks for " + docPath + " -> " + batch.size());
+            if (plans.isEmpty()) {
+                System.out.println("[RAG] All " + docs.size() + " docs unchanged. Nothing to embed.");
+            } else {
+                // === 4) 바뀐 청크만 병렬 임베딩 (여기서부터 비용 발생) ===
+                embedAll(toEmbed);
+
+                // === 5) 문서 단위 저장 ===
+                for (DocPlan plan : plans) {
+                    if (!plan.writes.isEmpty()) ragDao.batchUpsert(plan.writes);
+                    ragDao.deleteChunksFrom(plan.docPath, plan.chunkCount);
+                    ragDao.upsertDocHash(plan.docPath, plan.docHash, plan.chunkCount);
+                    System.out.println("[RAG] Synced " + plan.docPath + " -> chunks=" + plan.chunkCount
+                            + ", written=" + plan.writes.size());
+                }
+                changed = true;
+                System.out.println("[RAG] Indexed to MySQL via DAO: docs=" + plans.size()
+                        + ", embedded chunks=" + toEmbed.size());
             }
 
-            System.out.println("[RAG] Indexed to MySQL via DAO: " + docs.size() + " docs at " + base);
+            if (changed) {
+                // 상주 인덱스 갱신 (다음 질의부터 새 청크 반영)
+                vectorIndex.reload();
+                guideCache.clear();
+            }
+            ready = true;
         } catch (Exception e) {
             e.printStackTrace();
             System.err.println("[RAG] RAG ingest failed: " + e.getMessage());
+            failed = true;
         }
     }
 
-    private static List<Document> collectDocs(Path base, TextDocumentParser parser, List<String> exts) {
-        List<Document> out = new ArrayList<>();
+    /** embedBatchSize 단위로 나눠 최대 embedParallelism 개 동시 호출 */
+    private void embedAll(List<PendingChunk> pending) throws Exception {
+        if (pending.isEmpty()) return;
+
+        int batchSize = Math.max(1, ragProps.getEmbedBatchSize());
+        int parallelism = Math.max(1, ragProps.getEmbedParallelism());
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "rag-embed-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
         try {
-            Files.walk(base)
-                    .filter(Files::isRegularFile)
-                    .filter(p -> {
-                        String name = p.getFileName().toString();
-                        int i = name.lastIndexOf('.');
-                        if (i < 0) return false;
-                        String ext = name.substring(i + 1);
-                        return exts.contains(ext);
-                    })
-                    .forEach(p -> {
-                        try {
-                            var d = FileSystemDocumentLoader.loadDocument(p, parser);
-                            // 메타데이터에 파일 경로 넣기(아래 deleteByDocPath용)
-                            d.metadata().put("file_path", p.toAbsolutePath().normalize().toString());
-                            out.add(d);
-                            System.out.println("[RAG] + doc: " + p);
-                        } catch (Exception e) {
-                            System.err.println("[RAG] Failed to load doc: " + p + " -> " + e.getMessage());
-                        }
-                    });
-        } catch (Exception e) {
-            System.err.println("[RAG] collectDocs failed: " + e.getMessage());
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<PendingChunk> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                futures.add(pool.submit(() -> {
+                    List<TextSegment> segs = batch.stream().map(PendingChunk::segment).toList();
+                    List<Embedding> embs = embeddingModel.embedAll(segs).content();
+                    for (int i = 0; i < batch.size(); i++) {
+                        // 정규화해서 저장 (검색 시 코사인 = 내적)
+                        float[] v = embs.get(i).vector();
+                        batch.get(i).chunk().setVector(VectorIO.toBytes(SimilarityEngine.normalize(v, v.length)));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get(); // 하나라도 실패하면 예외 → 해시 기록 안 함
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** doc_path(guides/xxx.md) -> 본문. classpath 는 jar 안에서도 스트림으로 읽는다. 읽기 실패한 리소스는 failed 에 담음 */
+    private static Map<String, String> loadDocs(String cfg, List<String> failed) throws Exception {
+        String location;
+        String dir;
+        if (cfg.startsWith("classpath:")) {
+            dir = trimSlashes(cfg.substring("classpath:".length()));
+            location = "classpath*:" + dir + "/**/*";
+        } else {
+            Path base = Path.of(cfg).toAbsolutePath().normalize();
+            dir = base.getFileName() == null ? "" : base.getFileName().toString();
+            String uri = base.toUri().toString();
+            location = (uri.endsWith("/") ? uri : uri + "/") + "**/*";
+        }
+        System.out.println("[RAG] Guides location -> " + location);
+
+        String marker = "/" + dir + "/";
+        Map<String, String> out = new TreeMap<>();
+        var resolver = new PathMatchingResourcePatternResolver();
+        for (Resource res : resolver.getResources(location)) {
+            String name = res.getFilename();
+            if (name == null || !res.isReadable() || !hasExt(name)) continue;
+            try (var in = res.getInputStream()) {
+                // 한글 파일명이 %EA.. 로 저장되지 않도록 디코딩 후 디렉터리 기준 상대 경로만 사용
+                String url = decodeUrl(res.getURL().toString());
+                int i = url.lastIndexOf(marker);
+                String docPath = i >= 0 ? dir + "/" + url.substring(i + marker.length()) : dir + "/" + name;
+                out.put(docPath, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                System.out.println("[RAG] + doc: " + docPath);
+            } catch (Exception e) {
+                System.err.println("[RAG] Failed to load doc: " + res + " -> " + e.getMessage());
+                failed.add(String.valueOf(res));
+            }
         }
         return out;
     }
 
-//    private static List<Document> collectDocsByExt(Path base, TextDocumentParser parser, String ext) {
-//        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:**/*." + ext);
-//        return FileSystemDocumentLoader.loadDocuments(base, matcher, parser);
-//    }
+    /** URL 경로의 %XX 만 풀고 '+' 는 그대로 둔다 (URLDecoder 는 '+' 를 공백으로 바꿈) */
+    private static String decodeUrl(String url) {
+        return URLDecoder.decode(url.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private static boolean hasExt(String name) {
+        int i = name.lastIndexOf('.');
+        return i >= 0 && EXTS.contains(name.substring(i + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String trimSlashes(String s) {
+        s = s.trim();
+        while (s.startsWith("/")) s = s.substring(1);
+        while (s.endsWith("/")) s = s.substring(0, s.length() - 1);
+        return s;
+    }
+
+    static String sha256(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class DocPlan {
+        final String docPath;
+        final String docHash;
+        final int chunkCount;
+        final List<RagChunkVO> writes = new ArrayList<>();
+        DocPlan(String docPath, String docHash, int chunkCount) {
+            this.docPath = docPath; this.docHash = docHash; this.chunkCount = chunkCount;
+        }
+    }
+
+    private record PendingChunk(RagChunkVO chunk, TextSegment segment) {}
 }
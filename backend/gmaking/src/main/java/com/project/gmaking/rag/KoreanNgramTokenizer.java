@@ -0,0 +1,54 @@
+package com.project.gmaking.rag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 한국어 친화 n-gram 토크나이저 (형태소 분석기 없이 조사/어미 붙은 단어도 매칭되도록).
+ * - 한글 연속 구간: 음절 bigram (1음절이면 unigram) → "상점에서" = [상점, 점에, 에서]
+ * - 영문/숫자 연속 구간: 소문자 단어 그대로 → "PvP" = [pvp]
+ * - 그 외 문자(공백, 문장부호, 마크다운 기호)는 구분자
+ */
+public final class KoreanNgramTokenizer {
+
+    private KoreanNgramTokenizer() {}
+
+    public static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) return out;
+
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (isHangul(c)) {
+                int start = i;
+                while (i < n && isHangul(text.charAt(i))) i++;
+                addHangulGrams(text, start, i, out);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < n && Character.isLetterOrDigit(text.charAt(i)) && !isHangul(text.charAt(i))) i++;
+                out.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+        return out;
+    }
+
+    private static void addHangulGrams(String s, int from, int to, List<String> out) {
+        if (to - from == 1) {
+            out.add(s.substring(from, to));
+            return;
+        }
+        for (int i = from; i + 1 < to; i++) {
+            out.add(s.substring(i, i + 2));
+        }
+    }
+
+    static boolean isHangul(char c) {
+        return (c >= '가' && c <= '힣')   // 완성형 음절
+                || (c >= 'ㄱ' && c <= 'ㆎ'); // 호환 자모 (ㅋㅋ 등)
+    }
+}
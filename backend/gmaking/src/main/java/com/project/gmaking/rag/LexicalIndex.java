@@ -0,0 +1,91 @@
+package com.project.gmaking.rag;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 청크 본문 역색인 + BM25 점수 (KoreanNgramTokenizer 토큰 기준).
+ * 행 번호는 GuideVectorIndex 스냅샷의 행 번호와 같다.
+ */
+public final class LexicalIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final int size;
+    private final int[] docLen;
+    private final float avgDocLen;
+    private final Map<String, Postings> postings;
+
+    public LexicalIndex(String[] texts) {
+        this.size = texts.length;
+        this.docLen = new int[size];
+        this.postings = new HashMap<>();
+
+        long total = 0;
+        Map<String, Integer> tf = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            List<String> tokens = KoreanNgramTokenizer.tokenize(texts[row]);
+            docLen[row] = tokens.size();
+            total += tokens.size();
+
+            tf.clear();
+            for (String t : tokens) tf.merge(t, 1, Integer::sum);
+            for (var e : tf.entrySet()) {
+                postings.computeIfAbsent(e.getKey(), k -> new Postings()).add(row, e.getValue());
+            }
+        }
+        this.avgDocLen = size == 0 ? 0f : (float) total / size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** BM25 상위 n 행 (점수 내림차순, 매칭 없는 행은 제외) */
+    public int[] topN(String query, int n) {
+        if (size == 0 || n <= 0) return new int[0];
+
+        float[] scores = new float[size];
+        boolean any = false;
+        for (String term : new LinkedHashSet<>(KoreanNgramTokenizer.tokenize(query))) {
+            Postings p = postings.get(term);
+            if (p == null) continue;
+            any = true;
+            float idf = (float) Math.log(1.0 + (size - p.count + 0.5) / (p.count + 0.5));
+            for (int i = 0; i < p.count; i++) {
+                int row = p.rows[i];
+                float f = p.freqs[i];
+                float norm = K1 * (1 - B + B * docLen[row] / Math.max(avgDocLen, 1f));
+                scores[row] += idf * (f * (K1 + 1)) / (f + norm);
+            }
+        }
+        if (!any) return new int[0];
+
+        SimilarityEngine.TopHeap top = new SimilarityEngine.TopHeap(Math.min(n, size));
+        for (int row = 0; row < size; row++) {
+            if (scores[row] > 0f) top.offer(row, scores[row]);
+        }
+        return top.drainDescending();
+    }
+
+    /** 단어별 (행, 빈도) 목록 - 행 번호 오름차순으로 추가됨 */
+    private static final class Postings {
+        int[] rows = new int[4];
+        int[] freqs = new int[4];
+        int count;
+
+        void add(int row, int freq) {
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+                freqs = Arrays.copyOf(freqs, count * 2);
+            }
+            rows[count] = row;
+            freqs[count] = freq;
+            count++;
+        }
+    }
+}
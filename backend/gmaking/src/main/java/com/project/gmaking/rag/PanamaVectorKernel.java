@@ -0,0 +1,62 @@
+package com.project.gmaking.rag;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * JDK Vector API(jdk.incubator.vector) 커널.
+ * -PvectorApi 로 빌드한 경우에만 컴파일되며, VectorKernels 가 리플렉션으로 찾는다.
+ * 클래스가 없거나 런타임에 모듈이 없으면 VectorKernels 가 스칼라로 폴백한다.
+ */
+final class PanamaVectorKernel implements VectorKernel {
+
+    private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> I = IntVector.SPECIES_PREFERRED;
+    /** int 레인 수와 같은 레인 수의 byte species (예: 256bit int ↔ 64bit byte) */
+    private static final VectorSpecies<Byte> B =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(I.length() * Byte.SIZE));
+
+    static final PanamaVectorKernel INSTANCE = new PanamaVectorKernel();
+
+    private PanamaVectorKernel() {}
+
+    @Override
+    public float dot(float[] a, int aOff, float[] b, int bOff, int len) {
+        FloatVector acc = FloatVector.zero(F);
+        int i = 0;
+        int bound = F.loopBound(len);
+        for (; i < bound; i += F.length()) {
+            FloatVector va = FloatVector.fromArray(F, a, aOff + i);
+            FloatVector vb = FloatVector.fromArray(F, b, bOff + i);
+            acc = va.fma(vb, acc);
+        }
+        float s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) s += a[aOff + i] * b[bOff + i];
+        return s;
+    }
+
+    @Override
+    public int dot(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        IntVector acc = IntVector.zero(I);
+        int i = 0;
+        int bound = B.loopBound(len);
+        for (; i < bound; i += B.length()) {
+            // byte → int 로 넓힌 뒤 곱셈 (byte 곱은 오버플로)
+            IntVector va = (IntVector) ByteVector.fromArray(B, a, aOff + i).castShape(I, 0);
+            IntVector vb = (IntVector) ByteVector.fromArray(B, b, bOff + i).castShape(I, 0);
+            acc = acc.add(va.mul(vb));
+        }
+        int s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) s += a[aOff + i] * b[bOff + i];
+        return s;
+    }
+
+    @Override
+    public String name() {
+        return "vector-api(" + F.vectorBitSize() + "bit)";
+    }
+}
@@ -7,6 +7,7 @@ public class RagChunkVO {
     private Integer chunkIndex;
     private String text;
     private byte[] vector;
+    private String contentHash;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -18,5 +19,7 @@ public class RagChunkVO {
     public void setText(String text) { this.text = text; }
     public byte[] getVector() { return vector; }
     public void setVector(byte[] vector) { this.vector = vector; }
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
 
 }
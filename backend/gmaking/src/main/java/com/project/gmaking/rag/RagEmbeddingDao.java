@@ -1,9 +1,18 @@
 package com.project.gmaking.rag;
 
 import java.util.List;
+import java.util.Map;
 
 public interface RagEmbeddingDao {
     int deleteByDocPath(String docPath);
     int[] batchUpsert(List<RagChunkVO> chunks);  // VO 타입을 RagChunkVO로
     List<RagChunkVO> selectAll();
-}
\ No newline at end of file
+
+    // ---- 증분 인덱싱 ----
+    List<RagChunkVO> selectByDocPath(String docPath);       // 문서의 기존 청크 (해시/벡터 재사용)
+    int deleteChunksFrom(String docPath, int fromIndex);   // 문서가 짧아졌을 때 꼬리 청크 삭제
+    List<String> selectDocPaths();                         // 청크 테이블의 문서 목록
+    Map<String, String> selectDocHashes();                 // doc_path -> 문서 해시
+    int upsertDocHash(String docPath, String contentHash, int chunkCount);
+    int deleteDocHash(String docPath);
+}
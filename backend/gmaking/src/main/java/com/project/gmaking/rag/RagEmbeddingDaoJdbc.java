@@ -8,17 +8,42 @@ import org.springframework.stereotype.Repository;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class RagEmbeddingDaoJdbc implements RagEmbeddingDao {
 
     private final JdbcTemplate jdbc;
 
+    /** content_hash 컬럼 존재 여부 (ALTER 전 기존 DB면 false → 해시 없이 동작, 전부 재임베딩) */
+    private volatile Boolean hasChunkHash;
+
     public RagEmbeddingDaoJdbc(JdbcTemplate jdbc) {
         this.jdbc = jdbc;
     }
 
+    private boolean hasChunkHash() {
+        Boolean has = hasChunkHash;
+        if (has == null) {
+            String sql = """
+                SELECT COUNT(*) FROM information_schema.COLUMNS
+                 WHERE TABLE_SCHEMA = DATABASE()
+                   AND TABLE_NAME = 'tb_rag_embedding_chunk'
+                   AND COLUMN_NAME = 'content_hash'
+                """;
+            Integer cnt = jdbc.queryForObject(sql, Integer.class);
+            has = cnt != null && cnt > 0;
+            hasChunkHash = has;
+        }
+        return has;
+    }
+
+    private String hashColumn() {
+        return hasChunkHash() ? "content_hash" : "NULL AS content_hash";
+    }
+
     private static final RowMapper<RagChunkVO> ROW_MAPPER = new RowMapper<>() {
         @Override
         public RagChunkVO mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -28,6 +53,7 @@ public class RagEmbeddingDaoJdbc implements RagEmbeddingDao {
             e.setChunkIndex(rs.getInt("chunk_index"));
             e.setText(rs.getString("text"));
             e.setVector(rs.getBytes("vector"));
+            e.setContentHash(rs.getString("content_hash"));
             return e;
         }
     };
@@ -40,7 +66,12 @@ public class RagEmbeddingDaoJdbc implements RagEmbeddingDao {
 
     @Override
     public int[] batchUpsert(List<RagChunkVO> chunks) {
-        String sql = """
+        boolean withHash = hasChunkHash();
+        String sql = withHash ? """
+            INSERT INTO tb_rag_embedding_chunk (doc_path, chunk_index, text, vector, content_hash)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE text = VALUES(text), vector = VALUES(vector), content_hash = VALUES(content_hash)
+            """ : """
             INSERT INTO tb_rag_embedding_chunk (doc_path, chunk_index, text, vector)
             VALUES (?, ?, ?, ?)
             ON DUPLICATE KEY UPDATE text = VALUES(text), vector = VALUES(vector)
@@ -54,6 +85,7 @@ public class RagEmbeddingDaoJdbc implements RagEmbeddingDao {
                 ps.setInt(2, e.getChunkIndex());
                 ps.setString(3, e.getText());
                 ps.setBytes(4, e.getVector());
+                if (withHash) ps.setString(5, e.getContentHash());
             }
             @Override
             public int getBatchSize() { return chunks.size(); }
@@ -62,7 +94,56 @@ public class RagEmbeddingDaoJdbc implements RagEmbeddingDao {
 
     @Override
     public List<RagChunkVO> selectAll() {
-        String sql = "SELECT id, doc_path, chunk_index, text, vector FROM tb_rag_embedding_chunk";
+        String sql = "SELECT id, doc_path, chunk_index, text, vector, " + hashColumn() + " FROM tb_rag_embedding_chunk";
         return jdbc.query(sql, ROW_MAPPER);
     }
+
+    @Override
+    public List<RagChunkVO> selectByDocPath(String docPath) {
+        String sql = "SELECT id, doc_path, chunk_index, text, vector, " + hashColumn() + """
+
+              FROM tb_rag_embedding_chunk
+             WHERE doc_path = ?
+             ORDER BY chunk_index
+            """;
+        return jdbc.query(sql, ROW_MAPPER, docPath);
+    }
+
+    @Override
+    public int deleteChunksFrom(String docPath, int fromIndex) {
+        String sql = "DELETE FROM tb_rag_embedding_chunk WHERE doc_path = ? AND chunk_index >= ?";
+        return jdbc.update(sql, docPath, fromIndex);
+    }
+
+    @Override
+    public List<String> selectDocPaths() {
+        String sql = "SELECT DISTINCT doc_path FROM tb_rag_embedding_chunk";
+        return jdbc.queryForList(sql, String.class);
+    }
+
+    @Override
+    public Map<String, String> selectDocHashes() {
+        String sql = "SELECT doc_path, content_hash FROM tb_rag_document";
+        Map<String, String> out = new HashMap<>();
+        jdbc.query(sql, rs -> {
+            out.put(rs.getString("doc_path"), rs.getString("content_hash"));
+        });
+        return out;
+    }
+
+    @Override
+    public int upsertDocHash(String docPath, String contentHash, int chunkCount) {
+        String sql = """
+            INSERT INTO tb_rag_document (doc_path, content_hash, chunk_count)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE content_hash = VALUES(content_hash), chunk_count = VALUES(chunk_count)
+            """;
+        return jdbc.update(sql, docPath, contentHash, chunkCount);
+    }
+
+    @Override
+    public int deleteDocHash(String docPath) {
+        String sql = "DELETE FROM tb_rag_document WHERE doc_path = ?";
+        return jdbc.update(sql, docPath);
+    }
 }
@@ -12,6 +12,26 @@ public class RagProperties {
     private String guidesDir;
     /** 검색 topK */
     private int topK = 4;
+    /** 질문 캐시 TTL(초), 0이면 캐시 끔 */
+    private long cacheTtlSeconds = 3600;
+    /** 질문 캐시 최대 항목 수 (임베딩/답변 각각) */
+    private int cacheMaxEntries = 500;
+    /** 임베딩 API 1회 호출당 청크 수 */
+    private int embedBatchSize = 32;
+    /** 임베딩 배치 동시 호출 수 */
+    private int embedParallelism = 4;
+    /** int8 양자화 1차 검색 + float32 재채점 사용 여부 */
+    private boolean int8Search = true;
+    /** int8 1차 검색 후보 수 = topK * rescoreFactor */
+    private int rescoreFactor = 4;
+    /** 벡터 + BM25 하이브리드 검색 사용 여부 */
+    private boolean hybrid = true;
+    /** 하이브리드 합산 전 각 검색기에서 가져올 후보 수 */
+    private int hybridCandidates = 20;
+    /** RRF 상수 (클수록 하위 순위 가중치가 평평해짐) */
+    private int rrfK = 60;
+    /** 유사도 커널: auto(Vector API 가능하면 사용) | scalar */
+    private String vectorKernel = "auto";
 
     public boolean isAutoIngest() { return autoIngest; }
     public void setAutoIngest(boolean autoIngest) { this.autoIngest = autoIngest; }
@@ -21,4 +41,34 @@ public class RagProperties {
 
     public int getTopK() { return topK; }
     public void setTopK(int topK) { this.topK = topK; }
+
+    public long getCacheTtlSeconds() { return cacheTtlSeconds; }
+    public void setCacheTtlSeconds(long cacheTtlSeconds) { this.cacheTtlSeconds = cacheTtlSeconds; }
+
+    public int getCacheMaxEntries() { return cacheMaxEntries; }
+    public void setCacheMaxEntries(int cacheMaxEntries) { this.cacheMaxEntries = cacheMaxEntries; }
+
+    public int getEmbedBatchSize() { return embedBatchSize; }
+    public void setEmbedBatchSize(int embedBatchSize) { this.embedBatchSize = embedBatchSize; }
+
+    public int getEmbedParallelism() { return embedParallelism; }
+    public void setEmbedParallelism(int embedParallelism) { this.embedParallelism = embedParallelism; }
+
+    public boolean isInt8Search() { return int8Search; }
+    public void setInt8Search(boolean int8Search) { this.int8Search = int8Search; }
+
+    public int getRescoreFactor() { return rescoreFactor; }
+    public void setRescoreFactor(int rescoreFactor) { this.rescoreFactor = rescoreFactor; }
+
+    public boolean isHybrid() { return hybrid; }
+    public void setHybrid(boolean hybrid) { this.hybrid = hybrid; }
+
+    public int getHybridCandidates() { return hybridCandidates; }
+    public void setHybridCandidates(int hybridCandidates) { this.hybridCandidates = hybridCandidates; }
+
+    public int getRrfK() { return rrfK; }
+    public void setRrfK(int rrfK) { this.rrfK = rrfK; }
+
+    public String getVectorKernel() { return vectorKernel; }
+    public void setVectorKernel(String vectorKernel) { this.vectorKernel = vectorKernel; }
 }
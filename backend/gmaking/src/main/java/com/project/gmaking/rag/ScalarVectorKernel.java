@@ -0,0 +1,36 @@
+package com.project.gmaking.rag;
+
+/** 순수 자바 커널 (Vector API 를 못 쓰는 환경의 폴백) */
+final class ScalarVectorKernel implements VectorKernel {
+
+    static final ScalarVectorKernel INSTANCE = new ScalarVectorKernel();
+
+    private ScalarVectorKernel() {}
+
+    @Override
+    public float dot(float[] a, int aOff, float[] b, int bOff, int len) {
+        // 누산기 4개로 나눠 의존 체인을 끊어줌 (JIT 자동 벡터화에도 유리)
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        for (; i + 3 < len; i += 4) {
+            s0 += a[aOff + i]     * b[bOff + i];
+            s1 += a[aOff + i + 1] * b[bOff + i + 1];
+            s2 += a[aOff + i + 2] * b[bOff + i + 2];
+            s3 += a[aOff + i + 3] * b[bOff + i + 3];
+        }
+        for (; i < len; i++) s0 += a[aOff + i] * b[bOff + i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public int dot(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        int s = 0;
+        for (int i = 0; i < len; i++) s += a[aOff + i] * b[bOff + i];
+        return s;
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,186 @@
+package com.project.gmaking.rag;
+
+/**
+ * 정규화 벡터 행렬 + 상위 K 검색.
+ * - float32 행렬: 행마다 L2 정규화해서 연속 배열에 보관 → 점수 = 내적
+ * - int8 행렬(선택): 행마다 maxAbs 기준 대칭 양자화 + 스케일
+ *   1차로 int8 내적으로 k * rescoreFactor 개 후보를 뽑고, 2차로 float32 내적으로 재채점
+ * 내적은 VectorKernel(Vector API 또는 스칼라)이 계산한다.
+ */
+public final class SimilarityEngine {
+
+    private final int size;
+    private final int dim;
+    private final float[] vectors;
+    private final byte[] quantized;   // int8 검색 끄면 null
+    private final float[] scales;
+    private final int rescoreFactor;
+    private final VectorKernel kernel;
+
+    public SimilarityEngine(int size, int dim, boolean int8, int rescoreFactor, VectorKernel kernel) {
+        this.size = size;
+        this.dim = dim;
+        this.vectors = new float[size * dim];
+        this.quantized = int8 ? new byte[size * dim] : null;
+        this.scales = int8 ? new float[size] : null;
+        this.rescoreFactor = Math.max(1, rescoreFactor);
+        this.kernel = kernel;
+    }
+
+    public int size() { return size; }
+    public int dim() { return dim; }
+    public boolean isQuantized() { return quantized != null; }
+    public VectorKernel kernel() { return kernel; }
+
+    /** row 번째 행에 벡터 저장 (정규화 + 양자화) */
+    public void set(int row, float[] v) {
+        float[] n = normalize(v, dim);
+        System.arraycopy(n, 0, vectors, row * dim, dim);
+        if (quantized != null) scales[row] = quantize(n, quantized, row * dim);
+    }
+
+    /** 질의 벡터 전처리 (정규화 + 양자화) */
+    public Query prepare(float[] query) {
+        float[] n = normalize(query, dim);
+        if (quantized == null) return new Query(n, null, 0f);
+        byte[] q8 = new byte[dim];
+        float scale = quantize(n, q8, 0);
+        return new Query(n, q8, scale);
+    }
+
+    /** float32 점수 (코사인) */
+    public float score(Query q, int row) {
+        return kernel.dot(q.vector, 0, vectors, row * dim, dim);
+    }
+
+    /** 상위 k 행 번호 (float32 점수 내림차순) */
+    public int[] topK(Query q, int k) {
+        k = Math.min(k, size);
+        if (k <= 0) return new int[0];
+
+        if (quantized == null || size <= k * rescoreFactor) {
+            return exactTopK(q, k);
+        }
+
+        // 1) int8 근사 점수로 후보 추림
+        int c = Math.min(size, k * rescoreFactor);
+        TopHeap cand = new TopHeap(c);
+        for (int i = 0; i < size; i++) {
+            int dot = kernel.dot(q.quantized, 0, quantized, i * dim, dim);
+            cand.offer(i, dot * q.scale * scales[i]);
+        }
+
+        // 2) 후보만 float32 로 재채점
+        TopHeap top = new TopHeap(k);
+        for (int i = 0; i < cand.size(); i++) {
+            int row = cand.rowAt(i);
+            top.offer(row, score(q, row));
+        }
+        return top.drainDescending();
+    }
+
+    private int[] exactTopK(Query q, int k) {
+        TopHeap top = new TopHeap(k);
+        for (int i = 0; i < size; i++) top.offer(i, score(q, i));
+        return top.drainDescending();
+    }
+
+    // ---------- helpers ----------
+
+    /** L2 정규화한 복사본 (길이는 dim 기준으로 자르거나 0으로 채움) */
+    public static float[] normalize(float[] v, int dim) {
+        float[] out = new float[dim];
+        int n = Math.min(v.length, dim);
+        double sum = 0;
+        for (int i = 0; i < n; i++) sum += (double) v[i] * v[i];
+        if (sum == 0) return out;
+        float inv = (float) (1.0 / Math.sqrt(sum));
+        for (int i = 0; i < n; i++) out[i] = v[i] * inv;
+        return out;
+    }
+
+    /** 대칭 int8 양자화: out[off..off+len) 에 쓰고 스케일(원래값 = q * scale) 반환 */
+    static float quantize(float[] v, byte[] out, int off) {
+        float maxAbs = 0f;
+        for (float f : v) maxAbs = Math.max(maxAbs, Math.abs(f));
+        if (maxAbs == 0f) return 0f;
+        float inv = 127f / maxAbs;
+        for (int i = 0; i < v.length; i++) out[off + i] = (byte) Math.round(v[i] * inv);
+        return maxAbs / 127f;
+    }
+
+    /** 전처리된 질의 */
+    public static final class Query {
+        final float[] vector;
+        final byte[] quantized;
+        final float scale;
+        Query(float[] vector, byte[] quantized, float scale) {
+            this.vector = vector; this.quantized = quantized; this.scale = scale;
+        }
+    }
+
+    /** 크기 고정 최소 힙 (행 번호 + 점수), 상위 N 유지 */
+    static final class TopHeap {
+        private final int[] rows;
+        private final float[] scores;
+        private int n;
+
+        TopHeap(int capacity) {
+            this.rows = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        int size() { return n; }
+        int rowAt(int i) { return rows[i]; }
+
+        void offer(int row, float score) {
+            if (n < rows.length) {
+                rows[n] = row;
+                scores[n] = score;
+                siftUp(n++);
+            } else if (n > 0 && score > scores[0]) {
+                rows[0] = row;
+                scores[0] = score;
+                siftDown(0, n);
+            }
+        }
+
+        /** 힙에서 하나씩 꺼내 뒤에서부터 채우면 내림차순 (힙은 비워짐) */
+        int[] drainDescending() {
+            int[] out = new int[n];
+            for (int last = n - 1; last >= 0; last--) {
+                out[last] = rows[0];
+                rows[0] = rows[last];
+                scores[0] = scores[last];
+                siftDown(0, last);
+            }
+            n = 0;
+            return out;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (scores[p] <= scores[i]) break;
+                swap(p, i);
+                i = p;
+            }
+        }
+
+        private void siftDown(int i, int len) {
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, m = i;
+                if (l < len && scores[l] < scores[m]) m = l;
+                if (r < len && scores[r] < scores[m]) m = r;
+                if (m == i) return;
+                swap(m, i);
+                i = m;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int tr = rows[a]; rows[a] = rows[b]; rows[b] = tr;
+            float ts = scores[a]; scores[a] = scores[b]; scores[b] = ts;
+        }
+    }
+}
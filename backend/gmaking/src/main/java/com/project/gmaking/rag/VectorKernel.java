@@ -0,0 +1,16 @@
+package com.project.gmaking.rag;
+
+/**
+ * 유사도 계산 커널. 벡터는 미리 정규화되어 있다고 가정하므로 점수 = 내적.
+ * 구현은 VectorKernels.get(app.rag.vectorKernel) 이 JDK 환경에 맞게 고른다 (Vector API 또는 스칼라).
+ */
+public interface VectorKernel {
+
+    /** a[aOff..aOff+len) · b[bOff..bOff+len) */
+    float dot(float[] a, int aOff, float[] b, int bOff, int len);
+
+    /** int8 양자화 벡터 내적 (정수 누적, 스케일은 호출 측에서 곱함) */
+    int dot(byte[] a, int aOff, byte[] b, int bOff, int len);
+
+    String name();
+}
@@ -0,0 +1,54 @@
+package com.project.gmaking.rag;
+
+/**
+ * 실행 환경에 맞는 VectorKernel 선택.
+ * -PvectorApi 로 빌드하고 --add-modules jdk.incubator.vector 로 기동했으면 Vector API, 아니면 스칼라.
+ * app.rag.vectorKernel=scalar 로 강제 폴백 가능 (RagProperties).
+ */
+public final class VectorKernels {
+
+    private static final String PANAMA_CLASS = "com.project.gmaking.rag.PanamaVectorKernel";
+
+    private static volatile VectorKernel detected;
+
+    private VectorKernels() {}
+
+    /** mode: auto | scalar */
+    public static VectorKernel get(String mode) {
+        return "scalar".equalsIgnoreCase(mode) ? ScalarVectorKernel.INSTANCE : get();
+    }
+
+    /** 환경에서 쓸 수 있는 가장 빠른 커널 */
+    public static VectorKernel get() {
+        VectorKernel k = detected;
+        if (k == null) {
+            k = detect();
+            detected = k;
+        }
+        return k;
+    }
+
+    public static VectorKernel scalar() {
+        return ScalarVectorKernel.INSTANCE;
+    }
+
+    private static VectorKernel detect() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return ScalarVectorKernel.INSTANCE;
+        }
+        try {
+            // -PvectorApi 없이 빌드하면 클래스가 없음 → 스칼라
+            VectorKernel k = (VectorKernel) Class.forName(PANAMA_CLASS).getDeclaredField("INSTANCE").get(null);
+            // 간단 검증 (레인/꼬리 처리 포함)
+            float[] f = {1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f, 10f, 11f, 12f, 13f, 14f, 15f, 16f, 17f};
+            byte[] b = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17};
+            if (k.dot(f, 0, f, 0, f.length) != ScalarVectorKernel.INSTANCE.dot(f, 0, f, 0, f.length)
+                    || k.dot(b, 0, b, 0, b.length) != ScalarVectorKernel.INSTANCE.dot(b, 0, b, 0, b.length)) {
+                return ScalarVectorKernel.INSTANCE;
+            }
+            return k;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return ScalarVectorKernel.INSTANCE;
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.project.gmaking.ranking.controller;
 
+import com.project.gmaking.ranking.service.RankingBoards;
+import com.project.gmaking.ranking.service.RankingHistoryService;
 import com.project.gmaking.ranking.service.RankingService;
-import com.project.gmaking.ranking.vo.CharacterRankingVO;
-import com.project.gmaking.ranking.vo.PveRankingVO;
-import com.project.gmaking.ranking.vo.PvpRankingVO;
+import com.project.gmaking.ranking.service.RankingSnapshots;
+import com.project.gmaking.ranking.vo.RankingHistoryVO;
+import com.project.gmaking.ranking.vo.RankingPositionVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api/ranking")
@@ -16,19 +22,72 @@ import java.util.Map;
 public class RankingController {
 
     private final RankingService rankingService;
+    private final RankingSnapshots rankingSnapshots;
+    private final RankingHistoryService rankingHistoryService;
 
+    // 목록 3종: 미리 직렬화한 스냅샷, If-None-Match 가 같으면 304 (조회/직렬화 없음)
     @GetMapping("/pvp")
-    public List<PvpRankingVO> getPvpRanking() {
-        return rankingService.getPvpRanking();
+    public ResponseEntity<byte[]> getPvpRanking(WebRequest request) {
+        return snapshot(RankingBoards.Type.PVP, request);
     }
 
     @GetMapping("/pve")
-    public List<PveRankingVO> getPveRanking() {
-        return rankingService.getPveRanking();
+    public ResponseEntity<byte[]> getPveRanking(WebRequest request) {
+        return snapshot(RankingBoards.Type.PVE, request);
     }
 
     @GetMapping("/character")
-    public List<CharacterRankingVO> getCharacterRanking() {
-        return rankingService.getCharacterRanking();
+    public ResponseEntity<byte[]> getCharacterRanking(WebRequest request) {
+        return snapshot(RankingBoards.Type.CHARACTER, request);
+    }
+
+    // 캐릭터 한 명의 순위 (type: pvp / pve / character)
+    @GetMapping("/{type}/rank")
+    public ResponseEntity<?> getRank(@PathVariable String type, @RequestParam Integer characterId) {
+        RankingBoards.Type boardType = typeOf(type);
+        if (boardType == null) return ResponseEntity.badRequest().body("알 수 없는 랭킹 종류입니다: " + type);
+        RankingPositionVO position = rankingService.getPosition(boardType, characterId);
+        if (position == null) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(position);
+    }
+
+    // 일별 순위 추이 (최근 days 일), 마지막 스냅샷 이후 바뀐 게 없으면 304
+    @GetMapping("/{type}/history")
+    public ResponseEntity<?> getHistory(@PathVariable String type,
+                                        @RequestParam Integer characterId,
+                                        @RequestParam(defaultValue = "30") int days,
+                                        WebRequest request) {
+        RankingBoards.Type boardType = typeOf(type);
+        if (boardType == null) return ResponseEntity.badRequest().body("알 수 없는 랭킹 종류입니다: " + type);
+        days = Math.max(1, Math.min(days, 365));
+
+        LocalDate last = rankingHistoryService.lastSnapshotDate();
+        String etag = "\"h-" + boardType.name().toLowerCase() + "-" + characterId + "-" + days + "-" + last + "\"";
+        if (request.checkNotModified(etag)) return null;
+
+        List<RankingHistoryVO> history = rankingHistoryService.history(boardType, characterId, days);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(history);
+    }
+
+    private ResponseEntity<byte[]> snapshot(RankingBoards.Type type, WebRequest request) {
+        RankingSnapshots.Snapshot s = rankingSnapshots.get(type);
+        if (request.checkNotModified(s.etag())) return null;
+        return ResponseEntity.ok()
+                .eTag(s.etag())
+                .cacheControl(CacheControl.noCache())
+                .header("X-Ranking-Version", String.valueOf(s.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(s.body());
+    }
+
+    private static RankingBoards.Type typeOf(String type) {
+        try {
+            return RankingBoards.Type.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
@@ -1,15 +1,16 @@
 package com.project.gmaking.ranking.dao;
 
-import com.project.gmaking.ranking.vo.CharacterRankingVO;
-import com.project.gmaking.ranking.vo.PveRankingVO;
-import com.project.gmaking.ranking.vo.PvpRankingVO;
+import com.project.gmaking.ranking.vo.RankingScoreVO;
 import org.apache.ibatis.annotations.Mapper;
 import java.util.List;
-import java.util.Map;
 
 @Mapper
 public interface RankingDAO {
-    List<PvpRankingVO> selectPvpRanking();
-    List<PveRankingVO> selectPveRanking();
-    List<CharacterRankingVO> selectCharacterRanking();
+    // 랭킹 보드 적재 (전체 캐릭터, 점수 포함)
+    List<RankingScoreVO> selectPvpWinScores();
+    List<RankingScoreVO> selectPveClearScores();
+    List<RankingScoreVO> selectTotalStatScores();
+
+    // 보드에 없는 캐릭터 표시 정보 (score 없음)
+    RankingScoreVO selectRankingCharacter(Integer characterId);
 }
@@ -0,0 +1,23 @@
+package com.project.gmaking.ranking.dao;
+
+import com.project.gmaking.ranking.vo.RankingHistoryVO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper
+public interface RankingHistoryDAO {
+
+    // 일별 스냅샷 저장 (같은 날 다시 돌리면 덮어씀)
+    void insertRankingHistory(List<RankingHistoryVO> rows);
+
+    List<RankingHistoryVO> selectRankingHistory(@Param("rankingType") String rankingType,
+                                                @Param("characterId") Integer characterId,
+                                                @Param("fromDate") LocalDate fromDate);
+
+    LocalDate selectLastSnapshotDate();
+
+    int deleteRankingHistoryBefore(LocalDate date);
+}
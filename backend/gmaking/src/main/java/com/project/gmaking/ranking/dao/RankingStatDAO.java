@@ -0,0 +1,26 @@
+package com.project.gmaking.ranking.dao;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/** TB_CHARACTER_RANKING_STAT 갱신 (전투 결과 기록과 같은 트랜잭션에서 호출) */
+@Mapper
+public interface RankingStatDAO {
+
+    void addPvpResult(@Param("characterId") Integer characterId, @Param("win") boolean win);
+
+    void addPveClear(Integer characterId);
+
+    void upsertStatTotal(@Param("characterId") Integer characterId, @Param("statTotal") int statTotal);
+
+    void deleteRankingStat(Integer characterId);
+
+    // 집계 행이 없거나 STAT_TOTAL 이 빠진 캐릭터 수 (시작 시 백필 판단)
+    int countIncompleteRankingStats();
+
+    // 전체 재집계 (TB_BATTLE_LOG / TB_CHARACTER / TB_CHARACTER_STAT 기준)
+    int rollupRankingStats();
+
+    // 재집계 후 없어진 캐릭터 정리
+    int deleteOrphanRankingStats();
+}
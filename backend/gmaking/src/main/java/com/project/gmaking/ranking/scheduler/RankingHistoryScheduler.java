@@ -0,0 +1,27 @@
+package com.project.gmaking.ranking.scheduler;
+
+import com.project.gmaking.ranking.service.RankingHistoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 일별 랭킹 스냅샷 저장 (재집계 배치 이후 시각).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RankingHistoryScheduler {
+
+    private final RankingHistoryService rankingHistoryService;
+
+    @Scheduled(cron = "${ranking.history.cron:0 50 4 * * *}")
+    public void snapshot() {
+        try {
+            rankingHistoryService.takeDailySnapshot();
+        } catch (Exception e) {
+            log.error("[Ranking] daily snapshot failed", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.gmaking.ranking.scheduler;
+
+import com.project.gmaking.ranking.dao.RankingStatDAO;
+import com.project.gmaking.ranking.service.RankingBoards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * TB_CHARACTER_RANKING_STAT 재집계.
+ * 평소에는 전투 결과와 같은 트랜잭션에서 증분 갱신되고, 이 배치가 하루 한 번 TB_BATTLE_LOG 기준으로 다시 맞춘다.
+ * 집계 행이 없거나 불완전한 캐릭터가 있으면(최초 배포, 부분 배포 등) 시작 시 한 번 채운 뒤 랭킹 보드를 적재.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RankingRollupScheduler {
+
+    private final RankingStatDAO rankingStatDAO;
+    private final RankingBoards rankingBoards;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfIncomplete() {
+        int missing;
+        try {
+            missing = rankingStatDAO.countIncompleteRankingStats();
+        } catch (Exception e) {
+            log.warn("[Ranking] backfill skipped ({})", e.toString());
+            return;
+        }
+        if (missing > 0) {
+            log.info("[Ranking] backfill: {} characters missing from ranking stats", missing);
+            rollup();
+        }
+    }
+
+    @Scheduled(cron = "${ranking.rollup.cron:0 30 4 * * *}")
+    public void rollup() {
+        long start = System.currentTimeMillis();
+        try {
+            int upserted = rankingStatDAO.rollupRankingStats();
+            int orphans = rankingStatDAO.deleteOrphanRankingStats();
+            log.info("[Ranking] rollup done: rows={}, orphans={}, {}ms", upserted, orphans, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // 증분 갱신분은 그대로 남아 있으므로 보드 재적재는 계속 진행
+            log.error("[Ranking] rollup failed, boards reconcile from incremental stats", e);
+        }
+        try {
+            rankingBoards.reconcile();
+        } catch (Exception e) {
+            log.error("[Ranking] reconcile after rollup failed", e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.project.gmaking.ranking.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 점수 순 랭킹 보드 (메모리).
+ * - 정렬 집합 (점수 내림차순, 같은 점수는 characterId 순) : 상위 K 개 O(log n + K)
+ * - 점수별 인원 Fenwick 트리 : 임의 캐릭터 순위 O(log maxScore)
+ * 순위는 "나보다 점수가 높은 캐릭터 수 + 1" (동점은 같은 순위).
+ * 점수는 0 이상의 정수 (승리 수 / 클리어 수 / 스탯 합).
+ */
+public class Leaderboard {
+
+    /** 보드 한 칸 (이름/닉네임/등급은 표시용) */
+    public record Row(int characterId, String characterName, String userNickname, Integer gradeId, int score) {}
+
+    /** 순위 조회 결과 */
+    public record Position(Row row, int rank, int total) {}
+
+    private static final Comparator<Row> ORDER =
+            Comparator.comparingInt(Row::score).reversed().thenComparingInt(Row::characterId);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Row> byId = new HashMap<>();
+    private final NavigableSet<Row> ordered = new TreeSet<>(ORDER);
+    /** tree[i] : Fenwick (1-based, 점수 s 는 인덱스 s + 1) */
+    private long[] tree = new long[1024];
+
+    public void put(Row row) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(row.characterId());
+            byId.put(row.characterId(), row);
+            ordered.add(row);
+            addCount(Math.max(0, row.score()), 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 점수 증가 (보드에 없으면 false → 호출 측에서 이름 등을 채워 put) */
+    public boolean increment(int characterId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Row old = byId.get(characterId);
+            if (old == null) return false;
+            Row row = new Row(old.characterId(), old.characterName(), old.userNickname(), old.gradeId(),
+                    Math.max(0, old.score() + delta));
+            removeLocked(characterId);
+            byId.put(characterId, row);
+            ordered.add(row);
+            addCount(row.score(), 1);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int characterId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(characterId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 전체 교체 (DB 재적재) */
+    public void replaceAll(List<Row> rows) {
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            ordered.clear();
+            Arrays.fill(tree, 0);
+            for (Row r : rows) {
+                byId.put(r.characterId(), r);
+                ordered.add(r);
+                addCount(Math.max(0, r.score()), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** 상위 k 개 (점수가 minScore 미만이면 중단) */
+    public List<Row> top(int k, int minScore) {
+        lock.readLock().lock();
+        try {
+            List<Row> out = new ArrayList<>(Math.min(k, ordered.size()));
+            for (Row r : ordered) {
+                if (out.size() >= k || r.score() < minScore) break;
+                out.add(r);
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 보드에 없으면 null */
+    public Position position(int characterId) {
+        lock.readLock().lock();
+        try {
+            Row r = byId.get(characterId);
+            if (r == null) return null;
+            long notHigher = prefix(r.score()); // 점수 0..score 인원
+            return new Position(r, (int) (byId.size() - notHigher) + 1, byId.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Row get(int characterId) {
+        lock.readLock().lock();
+        try {
+            return byId.get(characterId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------- 쓰기 잠금 안에서만 ----------
+
+    private void removeLocked(int characterId) {
+        Row old = byId.remove(characterId);
+        if (old == null) return;
+        ordered.remove(old);
+        addCount(Math.max(0, old.score()), -1);
+    }
+
+    private void addCount(int score, int delta) {
+        if (score + 1 >= tree.length) {
+            grow(score + 2); // byId 기준으로 다시 세므로 이번 변경도 이미 반영됨
+            return;
+        }
+        for (int i = score + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    /** 점수 0..score 인 인원 수 */
+    private long prefix(int score) {
+        long sum = 0;
+        for (int i = Math.min(score + 1, tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    /** 배열을 키우면 Fenwick 구간이 바뀌므로 점수별 인원으로 다시 만든다 */
+    private void grow(int minLength) {
+        int length = tree.length;
+        while (length < minLength) length <<= 1;
+        tree = new long[length];
+        for (Row r : byId.values()) {
+            int score = Math.max(0, r.score());
+            for (int i = score + 1; i < tree.length; i += i & -i) tree[i]++;
+        }
+    }
+}
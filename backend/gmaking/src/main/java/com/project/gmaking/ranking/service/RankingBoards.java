@@ -0,0 +1,111 @@
+package com.project.gmaking.ranking.service;
+
+import com.project.gmaking.common.TxCallbacks;
+import com.project.gmaking.ranking.dao.RankingDAO;
+import com.project.gmaking.ranking.vo.RankingScoreVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 랭킹 보드 3종 (PVP 승리 수 / PVE 클리어 수 / 스탯 합) 메모리 유지.
+ * 시작 시 TB_CHARACTER_RANKING_STAT 에서 적재하고, 전투 종료·스테이지 클리어·캐릭터 생성/삭제 때 커밋 후 바로 갱신.
+ * 누락(롤백, 직접 DB 수정, 이름 변경 등)은 주기적 재적재로 맞춘다.
+ */
+@Slf4j
+@Component
+public class RankingBoards {
+
+    public enum Type { PVP, PVE, CHARACTER }
+
+    private final RankingDAO rankingDAO;
+    private final Map<Type, Leaderboard> boards = new EnumMap<>(Type.class);
+    private volatile boolean loaded;
+
+    public RankingBoards(RankingDAO rankingDAO) {
+        this.rankingDAO = rankingDAO;
+        for (Type t : Type.values()) boards.put(t, new Leaderboard());
+    }
+
+    public Leaderboard board(Type type) {
+        if (!loaded) reconcile();
+        return boards.get(type);
+    }
+
+    // ---------- 이벤트 ----------
+
+    public void onPvpWin(Integer characterId) {
+        TxCallbacks.afterCommit(() -> increment(Type.PVP, characterId));
+    }
+
+    public void onStageClear(Integer characterId) {
+        TxCallbacks.afterCommit(() -> increment(Type.PVE, characterId));
+    }
+
+    /** 새 캐릭터: 승리/클리어 0, 스탯 합 totalStat */
+    public void onCharacterCreated(Integer characterId, int totalStat) {
+        TxCallbacks.afterCommit(() -> {
+            if (!loaded) return;
+            RankingScoreVO meta = rankingDAO.selectRankingCharacter(characterId);
+            if (meta == null) return;
+            boards.get(Type.PVP).put(rowOf(meta, 0));
+            boards.get(Type.PVE).put(rowOf(meta, 0));
+            boards.get(Type.CHARACTER).put(rowOf(meta, totalStat));
+        });
+    }
+
+    public void onCharacterRemoved(Integer characterId) {
+        TxCallbacks.afterCommit(() -> boards.values().forEach(b -> b.remove(characterId)));
+    }
+
+    // ---------- 적재 ----------
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // DB 가 아직 준비되지 않았으면 첫 조회 때 다시 적재
+            log.warn("[Ranking] initial load failed ({})", e.toString());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${ranking.board.reconcile-interval-ms:600000}",
+            fixedDelayString = "${ranking.board.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        load(Type.PVP, rankingDAO.selectPvpWinScores());
+        load(Type.PVE, rankingDAO.selectPveClearScores());
+        load(Type.CHARACTER, rankingDAO.selectTotalStatScores());
+        loaded = true;
+    }
+
+    private void load(Type type, List<RankingScoreVO> scores) {
+        List<Leaderboard.Row> rows = new ArrayList<>(scores.size());
+        for (RankingScoreVO s : scores) rows.add(rowOf(s, s.getScore() != null ? s.getScore() : 0));
+        boards.get(type).replaceAll(rows);
+        log.info("[Ranking] {} board loaded: {} characters", type, rows.size());
+    }
+
+    private void increment(Type type, Integer characterId) {
+        if (!loaded || characterId == null) return;
+        Leaderboard board = boards.get(type);
+        if (board.increment(characterId, 1)) return;
+        // 적재 이후 생긴 캐릭터
+        RankingScoreVO meta = rankingDAO.selectRankingCharacter(characterId);
+        if (meta != null) board.put(rowOf(meta, 1));
+    }
+
+    private static Leaderboard.Row rowOf(RankingScoreVO s, int score) {
+        return new Leaderboard.Row(s.getCharacterId(), s.getCharacterName(), s.getUserNickname(), s.getGradeId(), score);
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.gmaking.ranking.service;
+
+import com.project.gmaking.ranking.dao.RankingHistoryDAO;
+import com.project.gmaking.ranking.vo.RankingHistoryVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 일별 랭킹 스냅샷 (TB_RANKING_HISTORY).
+ * 하루 한 번 랭킹 보드 상위 top-size 명의 순위/점수를 저장하고, 캐릭터별 추이 조회에 쓴다.
+ * 마지막 스냅샷 일자를 메모리에 두어 추이 조회 ETag 를 DB 없이 만들 수 있게 함.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankingHistoryService {
+
+    private static final int INSERT_BATCH = 500;
+
+    private final RankingHistoryDAO rankingHistoryDAO;
+    private final RankingBoards rankingBoards;
+
+    @Value("${ranking.history.top-size:1000}")
+    private int topSize;
+
+    @Value("${ranking.history.retention-days:365}")
+    private int retentionDays;
+
+    private volatile LocalDate lastSnapshotDate;
+    private volatile boolean lastDateLoaded;
+
+    public LocalDate lastSnapshotDate() {
+        if (!lastDateLoaded) {
+            lastSnapshotDate = rankingHistoryDAO.selectLastSnapshotDate();
+            lastDateLoaded = true;
+        }
+        return lastSnapshotDate;
+    }
+
+    public List<RankingHistoryVO> history(RankingBoards.Type type, Integer characterId, int days) {
+        return rankingHistoryDAO.selectRankingHistory(type.name(), characterId, LocalDate.now().minusDays(days));
+    }
+
+    /** 오늘 날짜 스냅샷 저장 (같은 날 다시 실행하면 덮어씀) */
+    public int takeDailySnapshot() {
+        LocalDate today = LocalDate.now();
+        int saved = 0;
+        for (RankingBoards.Type type : RankingBoards.Type.values()) {
+            List<Leaderboard.Row> top = rankingBoards.board(type).top(topSize, type == RankingBoards.Type.PVP ? 1 : 0);
+            List<RankingHistoryVO> batch = new ArrayList<>(Math.min(INSERT_BATCH, top.size()));
+            int rank = 0;
+            for (int i = 0; i < top.size(); i++) {
+                Leaderboard.Row r = top.get(i);
+                // 동점은 같은 순위 (보드 순위 규칙과 동일)
+                if (i == 0 || r.score() != top.get(i - 1).score()) rank = i + 1;
+                batch.add(new RankingHistoryVO(today, type.name(), r.characterId(), rank, r.score()));
+                if (batch.size() == INSERT_BATCH) {
+                    rankingHistoryDAO.insertRankingHistory(batch);
+                    saved += batch.size();
+                    batch = new ArrayList<>(INSERT_BATCH);
+                }
+            }
+            if (!batch.isEmpty()) {
+                rankingHistoryDAO.insertRankingHistory(batch);
+                saved += batch.size();
+            }
+        }
+        int purged = rankingHistoryDAO.deleteRankingHistoryBefore(today.minusDays(retentionDays));
+        lastSnapshotDate = today;
+        lastDateLoaded = true;
+        log.info("[Ranking] daily snapshot {}: rows={}, purged={}", today, saved, purged);
+        return saved;
+    }
+}
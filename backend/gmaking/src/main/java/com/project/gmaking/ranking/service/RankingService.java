@@ -3,6 +3,7 @@ package com.project.gmaking.ranking.service;
 import com.project.gmaking.ranking.vo.CharacterRankingVO;
 import com.project.gmaking.ranking.vo.PveRankingVO;
 import com.project.gmaking.ranking.vo.PvpRankingVO;
+import com.project.gmaking.ranking.vo.RankingPositionVO;
 
 import java.util.List;
 import java.util.Map;
@@ -11,4 +12,5 @@ public interface RankingService {
     List<PvpRankingVO> getPvpRanking();
     List<PveRankingVO> getPveRanking();
     List<CharacterRankingVO> getCharacterRanking();
+    RankingPositionVO getPosition(RankingBoards.Type type, Integer characterId);
 }
@@ -1,10 +1,11 @@
 package com.project.gmaking.ranking.service;
 
-import com.project.gmaking.ranking.dao.RankingDAO;
 import com.project.gmaking.ranking.vo.CharacterRankingVO;
 import com.project.gmaking.ranking.vo.PveRankingVO;
 import com.project.gmaking.ranking.vo.PvpRankingVO;
+import com.project.gmaking.ranking.vo.RankingPositionVO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,20 +15,61 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class RankingServiceImpl implements RankingService {
 
-    private final RankingDAO rankingDAO;
+    private final RankingBoards rankingBoards;
+
+    @Value("${ranking.board.top-size:50}")
+    private int topSize;
 
     @Override
     public List<PvpRankingVO> getPvpRanking() {
-        return rankingDAO.selectPvpRanking();
+        // 승리 기록이 있는 캐릭터만
+        return rankingBoards.board(RankingBoards.Type.PVP).top(topSize, 1).stream().map(r -> {
+            PvpRankingVO vo = new PvpRankingVO();
+            vo.setCharacterId(r.characterId());
+            vo.setCharacterName(r.characterName());
+            vo.setUserNickname(r.userNickname());
+            vo.setWinCount(r.score());
+            return vo;
+        }).toList();
     }
 
     @Override
     public List<PveRankingVO> getPveRanking() {
-        return rankingDAO.selectPveRanking();
+        return rankingBoards.board(RankingBoards.Type.PVE).top(topSize, 0).stream().map(r -> {
+            PveRankingVO vo = new PveRankingVO();
+            vo.setCharacterId(r.characterId());
+            vo.setCharacterName(r.characterName());
+            vo.setUserNickname(r.userNickname());
+            vo.setClearCount(r.score());
+            return vo;
+        }).toList();
     }
 
     @Override
     public List<CharacterRankingVO> getCharacterRanking() {
-        return rankingDAO.selectCharacterRanking();
+        return rankingBoards.board(RankingBoards.Type.CHARACTER).top(topSize, 0).stream().map(r -> {
+            CharacterRankingVO vo = new CharacterRankingVO();
+            vo.setCharacterId(r.characterId());
+            vo.setCharacterName(r.characterName());
+            vo.setUserNickname(r.userNickname());
+            vo.setGradeId(r.gradeId());
+            vo.setTotalStat(r.score());
+            return vo;
+        }).toList();
+    }
+
+    @Override
+    public RankingPositionVO getPosition(RankingBoards.Type type, Integer characterId) {
+        Leaderboard.Position p = rankingBoards.board(type).position(characterId);
+        if (p == null) return null;
+        RankingPositionVO vo = new RankingPositionVO();
+        vo.setType(type.name());
+        vo.setCharacterId(characterId);
+        vo.setCharacterName(p.row().characterName());
+        vo.setUserNickname(p.row().userNickname());
+        vo.setScore(p.row().score());
+        vo.setRank(p.rank());
+        vo.setTotal(p.total());
+        return vo;
     }
 }
@@ -0,0 +1,75 @@
+package com.project.gmaking.ranking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * 랭킹 목록 스냅샷 (미리 직렬화한 JSON 바이트 + 버전 + ETag).
+ * 주기적으로 랭킹 보드에서 다시 만들고 내용이 바뀐 경우에만 버전을 올린다.
+ * ETag 는 내용 CRC 라 서버가 여러 대이거나 재시작해도 같은 내용이면 같은 값 → If-None-Match 로 304.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RankingSnapshots {
+
+    /** version 은 이 서버에서 내용이 바뀐 횟수 (X-Ranking-Version 헤더용) */
+    public record Snapshot(long version, String etag, byte[] body) {}
+
+    private final RankingService rankingService;
+    private final ObjectMapper mapper;
+
+    private final Map<RankingBoards.Type, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public Snapshot get(RankingBoards.Type type) {
+        Snapshot s = snapshots.get(type);
+        return s != null ? s : refresh(type);
+    }
+
+    @Scheduled(fixedDelayString = "${ranking.snapshot.interval-ms:10000}")
+    public void refreshAll() {
+        for (RankingBoards.Type type : RankingBoards.Type.values()) {
+            try {
+                refresh(type);
+            } catch (Exception e) {
+                log.warn("[Ranking] snapshot refresh failed type={} ({})", type, e.toString());
+            }
+        }
+    }
+
+    private synchronized Snapshot refresh(RankingBoards.Type type) {
+        byte[] body;
+        try {
+            body = mapper.writeValueAsBytes(listOf(type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("랭킹 스냅샷 직렬화 실패: " + type, e);
+        }
+        Snapshot old = snapshots.get(type);
+        if (old != null && Arrays.equals(old.body(), body)) return old;
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        Snapshot s = new Snapshot(old == null ? 1 : old.version() + 1,
+                "\"" + type.name().toLowerCase() + "-" + Long.toHexString(crc.getValue()) + "\"", body);
+        snapshots.put(type, s);
+        return s;
+    }
+
+    private List<?> listOf(RankingBoards.Type type) {
+        return switch (type) {
+            case PVP -> rankingService.getPvpRanking();
+            case PVE -> rankingService.getPveRanking();
+            case CHARACTER -> rankingService.getCharacterRanking();
+        };
+    }
+}
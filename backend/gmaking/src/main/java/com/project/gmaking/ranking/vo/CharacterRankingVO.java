@@ -4,6 +4,7 @@ import lombok.Data;
 
 @Data
 public class CharacterRankingVO {
+    private Integer characterId;
     private String characterName;
     private String userNickname;
     private Integer gradeId;
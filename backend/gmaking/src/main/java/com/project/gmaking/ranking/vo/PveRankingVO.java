@@ -4,6 +4,7 @@ import lombok.Data;
 
 @Data
 public class PveRankingVO {
+    private Integer characterId;
     private String characterName;
     private String userNickname;
     private Integer clearCount;
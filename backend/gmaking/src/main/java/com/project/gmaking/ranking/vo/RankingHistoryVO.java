@@ -0,0 +1,19 @@
+package com.project.gmaking.ranking.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** 일별 랭킹 스냅샷 1행 (TB_RANKING_HISTORY) */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankingHistoryVO {
+    private LocalDate snapshotDate;
+    private String rankingType;
+    private Integer characterId;
+    private Integer rankNo;
+    private Integer score;
+}
@@ -0,0 +1,15 @@
+package com.project.gmaking.ranking.vo;
+
+import lombok.Data;
+
+/** 캐릭터 한 명의 순위 ("n 명 중 rank 위") */
+@Data
+public class RankingPositionVO {
+    private String type;
+    private Integer characterId;
+    private String characterName;
+    private String userNickname;
+    private Integer score;
+    private Integer rank;
+    private Integer total;
+}
@@ -0,0 +1,13 @@
+package com.project.gmaking.ranking.vo;
+
+import lombok.Data;
+
+/** 랭킹 보드 적재용 (캐릭터 1명 + 점수) */
+@Data
+public class RankingScoreVO {
+    private Integer characterId;
+    private String characterName;
+    private String userNickname;
+    private Integer gradeId;
+    private Integer score;
+}
@@ -92,6 +92,63 @@ CREATE TABLE TB_TURN_LOG (
     CREATED_DATE  DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일자'
 ) COMMENT='전투 턴별 상세 로그';
 
+-- =========================================================================================
+-- TB_BATTLE_REPLAY  (PVE 전투 리플레이 - 전투 1건 1행, TB_TURN_LOG 대체)
+-- =========================================================================================
+
+CREATE TABLE TB_BATTLE_REPLAY (
+    BATTLE_ID      INT        NOT NULL PRIMARY KEY COMMENT '배틀 ID (TB_BATTLE_LOG 참조)',
+    FORMAT_VERSION TINYINT    NOT NULL DEFAULT 1 COMMENT '인코딩 버전',
+    LAYOUT         TINYINT    NOT NULL COMMENT '로그 형태: 1 WebSocket, 2 REST',
+    SEED           BIGINT              DEFAULT NULL COMMENT '전투 난수 시드',
+    STATS_JSON     VARCHAR(1000) NOT NULL COMMENT '전투 시작 시 스탯 스냅샷',
+    TURN_DATA      BLOB       NOT NULL COMMENT '턴 튜플 (플래그 1byte + 데미지 varint)',
+    NOTE_BLOB      BLOB                DEFAULT NULL COMMENT '턴 note 묶음 (gzip)',
+    CREATED_DATE   DATETIME   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '생성 일자'
+) COMMENT='PVE 전투 리플레이';
+
+-- =========================================================================================
+-- TB_CHARACTER_RANKING_STAT  (캐릭터별 랭킹 집계 - 전투 결과와 같은 트랜잭션에서 갱신, 매일 TB_BATTLE_LOG 로 재집계)
+-- =========================================================================================
+
+CREATE TABLE TB_CHARACTER_RANKING_STAT (
+    CHARACTER_ID INT      NOT NULL PRIMARY KEY COMMENT '캐릭터 ID',
+    PVP_WINS     INT      NOT NULL DEFAULT 0 COMMENT 'PVP 승리 수',
+    PVP_LOSSES   INT      NOT NULL DEFAULT 0 COMMENT 'PVP 패배 수 (중간 이탈 제외)',
+    PVE_CLEARS   INT      NOT NULL DEFAULT 0 COMMENT 'PVE 클리어 수',
+    STAT_TOTAL   INT      NOT NULL DEFAULT 0 COMMENT '능력치 합',
+    LAST_UPDATED DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '마지막 갱신 일자',
+    -- 랭킹 정렬용 (InnoDB 보조 인덱스에 PK 가 포함되므로 점수 + CHARACTER_ID 커버링)
+    INDEX IDX_RANKING_PVP_WINS (PVP_WINS),
+    INDEX IDX_RANKING_PVE_CLEARS (PVE_CLEARS),
+    INDEX IDX_RANKING_STAT_TOTAL (STAT_TOTAL)
+) COMMENT='캐릭터 랭킹 집계';
+
+-- =========================================================================================
+-- TB_RANKING_HISTORY  (일별 랭킹 스냅샷 - 순위 추이 그래프용)
+-- =========================================================================================
+
+CREATE TABLE TB_RANKING_HISTORY (
+    RANKING_TYPE  VARCHAR(20) NOT NULL COMMENT '랭킹 종류: PVP, PVE, CHARACTER',
+    CHARACTER_ID  INT         NOT NULL COMMENT '캐릭터 ID',
+    SNAPSHOT_DATE DATE        NOT NULL COMMENT '스냅샷 일자',
+    RANK_NO       INT         NOT NULL COMMENT '순위 (동점 같은 순위)',
+    SCORE         INT         NOT NULL COMMENT '점수',
+    PRIMARY KEY (RANKING_TYPE, CHARACTER_ID, SNAPSHOT_DATE),
+    INDEX IDX_RANKING_HISTORY_DATE (SNAPSHOT_DATE)
+) COMMENT='일별 랭킹 스냅샷';
+
+-- =========================================================================================
+-- TB_PVP_ACTIVE_BATTLE  (진행 중 PVP 전투 상태 - pvp.battle-store.type=jdbc 일 때만 사용)
+-- =========================================================================================
+
+CREATE TABLE TB_PVP_ACTIVE_BATTLE (
+    BATTLE_ID    INT        NOT NULL PRIMARY KEY COMMENT '배틀 ID (TB_BATTLE_LOG 참조)',
+    BATTLE_JSON  MEDIUMTEXT NOT NULL COMMENT '전투 상태 (PvpBattleVO JSON)',
+    UPDATED_DATE DATETIME   NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '마지막 갱신 일자 (ttl 기준)',
+    INDEX IDX_PVP_ACTIVE_UPDATED (UPDATED_DATE)
+) COMMENT='진행 중 PVP 전투';
+
 -- =========================================================================================
 -- TB_CHARACTER (캐릭터 테이블)
 -- =========================================================================================
@@ -657,4 +714,38 @@ CREATE TABLE TB_USER_QUEST (
   COMPLETED_AT DATETIME DEFAULT NULL COMMENT '완료 시각',
   LAST_RESET_DATE DATE DEFAULT NULL COMMENT '마지막 초기화 일자',
   PRIMARY KEY (USER_QUEST_ID)
-) COMMENT='유저 퀘스트 진행 상태';
\ No newline at end of file
+) COMMENT='유저 퀘스트 진행 상태';
+-- =========================================================================================
+-- tb_rag_embedding_chunk (가이드봇 RAG 청크 + 임베딩)
+-- =========================================================================================
+CREATE TABLE IF NOT EXISTS tb_rag_embedding_chunk (
+  id           BIGINT       NOT NULL AUTO_INCREMENT,
+  doc_path     VARCHAR(255) NOT NULL COMMENT '문서 경로 (guides/xxx.md)',
+  chunk_index  INT          NOT NULL COMMENT '문서 내 청크 순번',
+  text         MEDIUMTEXT   NOT NULL COMMENT '청크 본문',
+  vector       MEDIUMBLOB   NOT NULL COMMENT 'float32 little-endian 임베딩',
+  content_hash CHAR(64)     DEFAULT NULL COMMENT '청크 본문 SHA-256 (증분 인덱싱용)',
+  PRIMARY KEY (id),
+  UNIQUE KEY UQ_RAG_CHUNK (doc_path, chunk_index)
+) COMMENT='RAG 임베딩 청크';
+
+-- 기존 테이블에 해시 컬럼 추가 (이미 있으면 생략). 컬럼이 없어도 앱은 해시 없이(매번 재임베딩) 동작
+SET @has_col := (SELECT COUNT(*) FROM information_schema.COLUMNS
+                  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tb_rag_embedding_chunk' AND COLUMN_NAME = 'content_hash');
+SET @ddl := IF(@has_col = 0,
+  'ALTER TABLE tb_rag_embedding_chunk ADD COLUMN content_hash CHAR(64) DEFAULT NULL COMMENT ''청크 본문 SHA-256 (증분 인덱싱용)''',
+  'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- =========================================================================================
+-- tb_rag_document (가이드 문서 단위 해시 - 안 바뀐 문서는 청킹/임베딩 생략)
+-- =========================================================================================
+CREATE TABLE IF NOT EXISTS tb_rag_document (
+  doc_path     VARCHAR(255) NOT NULL COMMENT '문서 경로 (guides/xxx.md)',
+  content_hash CHAR(64)     NOT NULL COMMENT '문서 전체 SHA-256',
+  chunk_count  INT          NOT NULL DEFAULT 0 COMMENT '청크 수',
+  updated_date DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '수정 일자',
+  PRIMARY KEY (doc_path)
+) COMMENT='RAG 문서 해시';
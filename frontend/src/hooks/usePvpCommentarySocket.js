@@ -0,0 +1,51 @@
+import { useEffect, useRef } from "react";
+import { Client as StompClient } from "@stomp/stompjs";
+import SockJS from "sockjs-client";
+
+// PVP 턴 해설 구독 (/topic/pvp/{battleId}) - 턴 응답 이후 늦게 도착하는 GPT 해설
+export default function usePvpCommentarySocket(battleId, onCommentary) {
+  const clientRef = useRef(null);
+  const handlerRef = useRef(onCommentary);
+  handlerRef.current = onCommentary;
+
+  useEffect(() => {
+    if (!battleId) return;
+
+    const API_BASE =
+      (typeof import.meta !== "undefined" && import.meta.env && import.meta.env.VITE_API_BASE) ||
+      process.env.REACT_APP_API_BASE ||
+      "http://localhost:8080";
+
+    const raw = localStorage.getItem("gmaking_token");
+    if (!raw) return;
+
+    const bearer = raw.startsWith("Bearer ") ? raw : `Bearer ${raw}`;
+    const tokenParam = encodeURIComponent(raw.replace(/^Bearer\s+/i, ""));
+    const sockUrl = `${API_BASE}/notify-ws?token=${tokenParam}`;
+
+    const client = new StompClient({
+      webSocketFactory: () => new SockJS(sockUrl),
+      connectHeaders: { Authorization: bearer },
+      reconnectDelay: 3000,
+      debug: () => {},
+      onConnect: () => {
+        client.subscribe(`/topic/pvp/${battleId}`, (frame) => {
+          try {
+            const data = frame && frame.body ? JSON.parse(frame.body) : {};
+            if (typeof handlerRef.current === "function") handlerRef.current(data);
+          } catch (e) {
+            console.error("PVP 해설 JSON 파싱 실패", e);
+          }
+        });
+      },
+    });
+
+    clientRef.current = client;
+    client.activate();
+
+    return () => {
+      try { clientRef.current && clientRef.current.deactivate(); } catch {}
+      clientRef.current = null;
+    };
+  }, [battleId]);
+}
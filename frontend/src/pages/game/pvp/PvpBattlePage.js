@@ -2,6 +2,7 @@ import React, { useEffect, useState, useRef } from "react";
 import { useLocation, useNavigate } from "react-router-dom";
 import axios from "axios";
 import Header from "../../../components/Header";
+import usePvpCommentarySocket from "../../../hooks/usePvpCommentarySocket";
 
 const commands = ["공격", "방어", "회피", "필살기"];
 
@@ -37,6 +38,17 @@ function PvpBattlePage() {
     const [isProcessing, setIsProcessing] = useState(false);
     const [specialCooldown, setSpecialCooldown] = useState(0);
     const logContainerRef = useRef(null);
+    // 턴 번호 → 해설이 붙은 로그 (턴 응답보다 먼저 도착해도 유지)
+    const commentaryRef = useRef({});
+
+    const applyCommentary = (logs) =>
+        logs.map((log, idx) => commentaryRef.current[idx + 1] ?? log);
+
+    usePvpCommentarySocket(battleId, ({ turn, log }) => {
+        if (!turn || !log) return;
+        commentaryRef.current[turn] = log;
+        setBattleLogs(prev => applyCommentary(prev));
+    });
 
     // 체력 퍼센트 계산
     const calcHpPercent = (current, max) => Math.max(0, Math.round((current / max) * 100));
@@ -99,7 +111,7 @@ function PvpBattlePage() {
             setEnemyCommand(actualEnemyCommand);
             setTurnSummary(`${myCharacter.characterName}의 ${myCommand} VS ${enemyCharacter.characterName}의 ${actualEnemyCommand}`);
 
-            setBattleLogs(turnResponse.data.logs || []);
+            setBattleLogs(applyCommentary(turnResponse.data.logs || []));
             setPlayerCurrentHp(turnResponse.data.playerHp);
             setEnemyCurrentHp(turnResponse.data.enemyHp);
 
@@ -74,8 +74,15 @@ function PvpMatchPage() {
     }, [rematch, opponent]);
 
     const findOpponent = () => {
-        axios.get(`/api/pvp/match?userId=${userId}`)
-            .then(res => setOpponentCharacters(res.data.characters))
+        // 내 캐릭터를 골랐으면 그 캐릭터 전투력 기준으로 매칭
+        const params = { userId };
+        if (selectedMyChar) params.characterId = selectedMyChar.characterId;
+        axios.get("/api/pvp/match", { params })
+            .then(res => {
+                const chars = res.data.characters || [];
+                setOpponentCharacters(chars);
+                setSelectedEnemyChar(chars.find(c => c.characterId === res.data.matchedCharacterId) || null);
+            })
             .catch(() => alert("매칭 실패. 다시 시도해주세요."));
     };
 